@@ -0,0 +1,56 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import io.github.imhmg.tokyo.commons.ExpressionParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpressionParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Expression {
+
+        @Param({
+                "@body json.$.id [==] 1024",
+                "@body json.$.items[10].supplier.name [<>] Supplier",
+                "@header Content-Type [==] application/json",
+                "@status [==] 200",
+                "@time firstByte [<] 200"
+        })
+        public String expression;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Body {
+
+        // Number of items in the json body, 1000 items are about 200 KB
+        @Param({"10", "1000"})
+        public int items;
+
+        private String body;
+        private String path;
+
+        @Setup
+        public void setup() {
+            body = Fixtures.json(items);
+            path = "$.items[" + (items - 1) + "].supplier.name";
+        }
+    }
+
+    @Benchmark
+    public ExpressionParser.Result parseExpression(Expression state) {
+        return ExpressionParser.parseExpression(state.expression);
+    }
+
+    @Benchmark
+    public String extractJsonValue(Body state) {
+        return ExpressionParser.extractValueByFormatAndExpression(state.body, ExpressionParser.Format.JSON, state.path);
+    }
+
+    @Benchmark
+    public String extractRawValue(Body state) {
+        return ExpressionParser.extractValueByFormatAndExpression(state.body, ExpressionParser.Format.RAW, null);
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import io.github.imhmg.tokyo.SpecRunner;
+import io.github.imhmg.tokyo.commons.Console;
+import io.github.imhmg.tokyo.commons.JsonParser;
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Runs the product flow against an in-process stub at increasing input rows and parallel rows,
+ * and reports the time, cpu and allocations Tokyo adds to every step. Stub handler time is taken
+ * out, the rest is spec rendering, transport, asserts, console output and the report.
+ *
+ * Options: --rows 10,100,1000 --parallel 1,4,16 --console off --output file --set key=value
+ */
+public class OverheadBenchmark {
+
+    private static final com.sun.management.OperatingSystemMXBean OS = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private static final int WARMUP_ROWS = 200;
+
+    private final List<Integer> rows;
+    private final List<Integer> parallel;
+    private final Map<String, Object> configs;
+    private final String output;
+    private final ProductStub stub;
+
+    private OverheadBenchmark(Map<String, String> options, Map<String, Object> configs) throws IOException {
+        this.rows = toInts(options.getOrDefault("--rows", "10,100,1000"));
+        this.parallel = toInts(options.getOrDefault("--parallel", "1,4,16"));
+        this.output = options.getOrDefault("--output", "build/results/overhead/results.json");
+        this.configs = configs;
+        this.stub = new ProductStub(Math.max(4, Collections.max(parallel)));
+        this.configs.put("port", String.valueOf(stub.getPort()));
+        this.configs.put("domain", "localhost");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, Object> configs = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--set")) {
+                String[] config = args[i + 1].split("=", 2);
+                configs.put(config[0], config.length > 1 ? config[1] : "");
+            } else {
+                options.put(args[i], args[i + 1]);
+            }
+        }
+        Console.setLevel(Console.parseLevel(options.getOrDefault("--console", "off")));
+        OverheadBenchmark benchmark = new OverheadBenchmark(options, configs);
+        try {
+            benchmark.run();
+        } finally {
+            benchmark.stub.stop();
+            Console.flush();
+        }
+    }
+
+    private void run() throws IOException {
+        // First run warms up the JIT and the http clients, it is not reported
+        measure(WARMUP_ROWS, 1);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int r : rows) {
+            for (int p : parallel) {
+                results.add(measure(r, p));
+            }
+        }
+        print(results);
+        Path file = Paths.get(output);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, JsonParser.toJson(results).getBytes(StandardCharsets.UTF_8));
+        Console.message("Results written to " + file.toAbsolutePath());
+    }
+
+    private Map<String, Object> measure(int rowCount, int parallelRows) throws IOException {
+        Path input = writeInput(rowCount);
+        RunSpec runSpec = RunSpec.builder()
+                .scenarioSpecFile("product/flow-1.yaml")
+                .configFiles(List.of("product/env.yaml"))
+                .inputFile(input.toString())
+                .configs(configs)
+                .parallel(parallelRows)
+                .reportSpec(RunSpec.ReportSpec.builder()
+                        .dir("build/results/overhead")
+                        .file("overhead_" + rowCount + "_" + parallelRows + ".html")
+                        .build())
+                .build();
+        stub.reset();
+        System.gc();
+        AllocationSampler sampler = new AllocationSampler();
+        long cpuStart = OS.getProcessCpuTime();
+        long start = System.nanoTime();
+        SpecRunner runner;
+        try {
+            runner = new SpecRunner(runSpec);
+            runner.execute();
+        } finally {
+            Files.deleteIfExists(input);
+        }
+        long wall = System.nanoTime() - start;
+        long cpu = OS.getProcessCpuTime() - cpuStart;
+        long allocated = sampler.stop();
+
+        long steps = stub.getRequests();
+        long failed = 0;
+        synchronized (runner.getScenario().getSteps()) {
+            for (List<Step> section : runner.getScenario().getSteps().values()) {
+                failed += section.stream().filter(s -> s.getFailure() != null || !s.isPassed()).count();
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rowCount);
+        result.put("parallel", parallelRows);
+        result.put("steps", steps);
+        result.put("failed", failed);
+        result.put("passed", runner.getScenario().isPassed());
+        result.put("elapsedMs", wall / 1_000_000);
+        result.put("throughput", steps * 1e9 / wall);
+        result.put("stubTimePerStepUs", perStep(stub.getTime(), steps) / 1000);
+        // Rows overlap when they run in parallel, the wall time overhead is only exact for sequential rows
+        result.put("overheadPerStepUs", parallelRows == 1 ? perStep(wall - stub.getTime(), steps) / 1000 : null);
+        result.put("cpuPerStepUs", perStep(cpu - stub.getCpu(), steps) / 1000);
+        result.put("allocatedPerStepKb", perStep(allocated - stub.getAllocated(), steps) / 1024);
+        result.put("allocationRateMbPerSec", (allocated - stub.getAllocated()) / 1048576.0 / (wall / 1e9));
+        return result;
+    }
+
+    private static double perStep(long total, long steps) {
+        return steps == 0 ? 0 : (double) total / steps;
+    }
+
+    private static Path writeInput(int rowCount) throws IOException {
+        // Same fake data as the product input file, rendered while the rows are read
+        Path file = Files.createTempFile("tky-overhead-", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("#Name#,id,name,price,stock,supplier\n");
+            for (int i = 1; i <= rowCount; i++) {
+                writer.write("Product " + i + ",${faker regexify '[a-z]{15}'},${faker book.title},${faker numerify '##.##'},${faker numerify '##'},${faker dog.name}\n");
+            }
+        }
+        return file;
+    }
+
+    private static void print(List<Map<String, Object>> results) {
+        Console.message(String.format(Locale.ROOT, "%8s %9s %8s %7s %10s %12s %14s %12s %14s %12s",
+                "rows", "parallel", "steps", "failed", "steps/s", "stub us", "overhead us", "cpu us", "alloc KB", "alloc MB/s"));
+        Map<String, Object> max = null;
+        for (Map<String, Object> r : results) {
+            Object overhead = r.get("overheadPerStepUs");
+            Console.message(String.format(Locale.ROOT, "%8d %9d %8d %7d %10.1f %12.1f %14s %12.1f %14.1f %12.1f",
+                    r.get("rows"), r.get("parallel"), r.get("steps"), r.get("failed"), r.get("throughput"),
+                    r.get("stubTimePerStepUs"), overhead == null ? "-" : String.format(Locale.ROOT, "%.1f", overhead),
+                    r.get("cpuPerStepUs"), r.get("allocatedPerStepKb"), r.get("allocationRateMbPerSec")));
+            if ((boolean) r.get("passed") && (max == null || (double) r.get("throughput") > (double) max.get("throughput"))) {
+                max = r;
+            }
+        }
+        if (max != null) {
+            Console.message(String.format(Locale.ROOT, "Max sustainable throughput %.1f steps/s with %d rows, %d parallel",
+                    max.get("throughput"), max.get("rows"), max.get("parallel")));
+        }
+    }
+
+    private static List<Integer> toInts(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String s : value.split(",")) {
+            values.add(Integer.parseInt(s.trim()));
+        }
+        return values;
+    }
+
+    /**
+     * Bytes allocated by all threads while a run is measured. Threads are sampled until the run
+     * ended, so pool threads which finished before the end are still counted.
+     */
+    private static class AllocationSampler implements Runnable {
+
+        private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final Map<Long, Long> start = new HashMap<>();
+        private final Map<Long, Long> last = new HashMap<>();
+        private final Thread thread;
+        private final long samplerId;
+        private volatile boolean running = true;
+
+        private AllocationSampler() {
+            this.thread = new Thread(this, "tky-allocation-sampler");
+            this.thread.setDaemon(true);
+            // Only the sampler is left out, every other thread has the same start and end sample
+            this.samplerId = this.thread.getId();
+            sample(start);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                synchronized (this) {
+                    sample(last);
+                }
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private long stop() {
+            running = false;
+            thread.interrupt();
+            long total = 0;
+            synchronized (this) {
+                sample(last);
+                for (Map.Entry<Long, Long> e : last.entrySet()) {
+                    total += e.getValue() - start.getOrDefault(e.getKey(), 0L);
+                }
+            }
+            return total;
+        }
+
+        private void sample(Map<Long, Long> values) {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0 && ids[i] != samplerId) {
+                    values.put(ids[i], bytes[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zero latency, in-process version of the products API used by the product flow. Time, cpu and
+ * allocations of the handlers are counted, so they can be taken out of the client overhead.
+ */
+class ProductStub {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, ObjectNode> products = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder time = new LongAdder();
+    private final LongAdder cpu = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private volatile String token = UUID.randomUUID().toString();
+
+    ProductStub(int threads) throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "tky-stub-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void reset() {
+        products.clear();
+        requests.reset();
+        time.reset();
+        cpu.reset();
+        allocated.reset();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getTime() {
+        return time.sum();
+    }
+
+    long getCpu() {
+        return cpu.sum();
+    }
+
+    long getAllocated() {
+        return allocated.sum();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        long threadId = Thread.currentThread().getId();
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        long allocatedStart = THREADS.getThreadAllocatedBytes(threadId);
+        try {
+            dispatch(exchange);
+        } finally {
+            exchange.close();
+            requests.increment();
+            time.add(System.nanoTime() - start);
+            cpu.add(THREADS.getCurrentThreadCpuTime() - cpuStart);
+            allocated.add(THREADS.getThreadAllocatedBytes(threadId) - allocatedStart);
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals("/login") && method.equals("POST")) {
+            exchange.getResponseHeaders().add("Authorization", token);
+            send(exchange, 200, "{\"status\": \"success\"}");
+            return;
+        }
+        if (!token.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            send(exchange, 401, "{\"error\": \"Unauthorized\"}");
+            return;
+        }
+        if (path.startsWith("/products/get/") && method.equals("GET")) {
+            ObjectNode product = products.get(path.substring("/products/get/".length()));
+            send(exchange, product == null ? 404 : 200, product == null ? "{\"error\": \"Not found\"}" : mapper.writeValueAsString(product));
+            return;
+        }
+        JsonNode body = mapper.readTree(exchange.getRequestBody());
+        String id = body.path("id").asText();
+        switch (path) {
+            case "/products/add":
+                ObjectNode added = product(body);
+                if (products.putIfAbsent(id, added) != null) {
+                    send(exchange, 409, "{\"error\": \"Already exists\"}");
+                } else {
+                    send(exchange, 200, mapper.writeValueAsString(added));
+                }
+                break;
+            case "/products/update":
+                ObjectNode updated = product(body);
+                if (products.replace(id, updated) == null) {
+                    send(exchange, 404, "{\"error\": \"Not found\"}");
+                } else {
+                    send(exchange, 200, mapper.writeValueAsString(updated));
+                }
+                break;
+            case "/products/remove":
+                if (products.remove(id) == null) {
+                    send(exchange, 404, "{\"error\": \"Not found\"}");
+                } else {
+                    send(exchange, 200, "{\"status\": \"success\"}");
+                }
+                break;
+            default:
+                send(exchange, 404, "{\"error\": \"Endpoint not found\"}");
+        }
+    }
+
+    private ObjectNode product(JsonNode body) {
+        ObjectNode product = mapper.createObjectNode();
+        for (String field : new String[]{"id", "name", "price", "stock", "supplierName"}) {
+            product.put(field, body.path(field).asText());
+        }
+        return product;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import io.github.imhmg.tokyo.core.TokyoFaker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokyoFakerBenchmark {
+
+    // Expressions used by the product request files and the README
+    @Param({"faker book.title", "faker company.name", "faker numerify '##.##'", "faker regexify '[a-z]{10}'", "server"})
+    public String expression;
+
+    @Benchmark
+    public String get() {
+        return TokyoFaker.get(expression);
+    }
+}
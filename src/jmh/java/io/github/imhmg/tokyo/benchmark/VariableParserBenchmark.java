@@ -0,0 +1,57 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import io.github.imhmg.tokyo.commons.VariableParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VariableParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SpecFile {
+
+        @Param({"product/requests/product-add.yaml", "product/requests/product-update.yaml", "product/requests/login.yaml"})
+        public String file;
+
+        private String content;
+        private Map<String, String> variables;
+
+        @Setup
+        public void setup() {
+            content = Fixtures.read(file);
+            variables = Fixtures.variables();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class JsonBody {
+
+        private String body;
+        private Map<String, String> variables;
+
+        @Setup
+        public void setup() {
+            variables = Fixtures.variables();
+            // Json body with a variable in every value, like a body built from an input row
+            StringBuilder json = new StringBuilder("{");
+            for (int i = 0; i < 200; i++) {
+                json.append(i == 0 ? "" : ", ").append("\"field").append(i).append("\": \"${name}-${id}\"");
+            }
+            body = json.append('}').toString();
+        }
+    }
+
+    @Benchmark
+    public String replaceSpecFile(SpecFile state) {
+        return VariableParser.replaceVariables(state.content, state.variables::get, new HashMap<>());
+    }
+
+    @Benchmark
+    public String replaceJsonBody(JsonBody state) {
+        return VariableParser.replaceVariables(state.body, state.variables::get, new HashMap<>());
+    }
+}
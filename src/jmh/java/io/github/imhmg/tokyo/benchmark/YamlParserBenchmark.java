@@ -0,0 +1,48 @@
+package io.github.imhmg.tokyo.benchmark;
+
+import io.github.imhmg.tokyo.commons.YamlParser;
+import io.github.imhmg.tokyo.core.http.HttpSpec;
+import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class YamlParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Request {
+
+        @Param({"product/requests/product-add.yaml", "product/requests/product-update.yaml", "product/requests/product-get.yaml"})
+        public String file;
+
+        private String content;
+
+        @Setup
+        public void setup() {
+            content = Fixtures.read(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Scenario {
+
+        private String content;
+
+        @Setup
+        public void setup() {
+            content = Fixtures.read("product/flow-1.yaml");
+        }
+    }
+
+    @Benchmark
+    public HttpSpec parseRequest(Request state) {
+        return YamlParser.parse(state.content, HttpSpec.class);
+    }
+
+    @Benchmark
+    public ScenarioSpec parseScenario(Scenario state) {
+        return YamlParser.parse(state.content, ScenarioSpec.class);
+    }
+}
@@ -1,31 +1,50 @@
 package io.github.imhmg.tokyo;
 
-import io.github.imhmg.tokyo.commons.VariableParser;
+import io.github.imhmg.tokyo.commons.Console;
 import io.github.imhmg.tokyo.commons.FileReader;
 import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.commons.ReportGenerator;
+import io.github.imhmg.tokyo.commons.ReportSpool;
+import io.github.imhmg.tokyo.commons.VariableParser;
 import io.github.imhmg.tokyo.commons.YamlParser;
+import io.github.imhmg.tokyo.core.CsvInputSource;
+import io.github.imhmg.tokyo.core.ExecutionEngine;
 import io.github.imhmg.tokyo.core.TokyoFaker;
+import io.github.imhmg.tokyo.core.http.BodyRetention;
+import io.github.imhmg.tokyo.core.http.ConnectionPools;
+import io.github.imhmg.tokyo.core.http.HttpRequestStep;
+import io.github.imhmg.tokyo.core.http.HttpSpecTemplate;
+import io.github.imhmg.tokyo.core.metrics.Baseline;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
 import io.github.imhmg.tokyo.core.spec.DataSpec;
+import io.github.imhmg.tokyo.core.spec.LoadSpec;
 import io.github.imhmg.tokyo.core.spec.RunSpec;
 import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
 import io.github.imhmg.tokyo.core.spec.StepSpec;
+import io.github.imhmg.tokyo.core.spec.ThresholdSpec;
 import io.github.imhmg.tokyo.core.Scenario;
-import com.opencsv.CSVReader;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.DynamicContainer;
 
-import java.io.StringReader;
 import java.util.*;
 import java.util.stream.Stream;
 
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+
 @Getter
 @Setter
 public class SpecRunner {
     private ScenarioSpec spec;
     private RunSpec runSpec;
     private Scenario scenario;
+    private Iterable<DataSpec> inputSource;
+    private ReportSpool reportSpool;
+    private ConnectionPools connectionPools;
+    private Baseline baseline;
+    private List<Baseline.Delta> baselineDeltas;
 
     public SpecRunner(RunSpec runSpec) {
 
@@ -35,16 +54,118 @@ public class SpecRunner {
     }
 
     public Stream<DynamicContainer> run() {
-        List<DataSpec> i = new ArrayList<>();
-        if (this.spec.getInputs().size() == 0) {
+        prepare();
+        return scenario.run().onClose(this::publishReport);
+    }
+
+    public void execute() {
+        prepare();
+        try {
+            scenario.execute();
+        } finally {
+            publishReport();
+        }
+    }
+
+    private synchronized void publishReport() {
+        // Final report is written once when the scenario finished
+        if (this.reportSpool == null) {
+            return;
+        }
+        this.reportSpool.stopRefresh();
+        if (Boolean.TRUE.equals(this.runSpec.getReportSpec().getBaseline())) {
+            try {
+                compareBaseline();
+            } catch (RuntimeException e) {
+                Log.error("Unable to compare with baseline : {}", e.getMessage());
+            }
+        }
+        ReportGenerator.generateReport(this);
+        this.reportSpool.close();
+        this.connectionPools.close();
+    }
+
+    private void compareBaseline() {
+        Metrics metrics = this.scenario.getMetrics();
+        if (metrics == null) {
+            return;
+        }
+        String path = ReportGenerator.getBaselinePath(this);
+        this.baseline = Baseline.read(path);
+        if (this.baseline != null) {
+            this.baselineDeltas = this.baseline.compare(metrics, getBaselineTolerance());
+            printBaseline();
+        }
+        // A failed run never becomes the baseline
+        if ((this.baseline == null || Boolean.TRUE.equals(this.runSpec.getReportSpec().getUpdateBaseline())) && this.scenario.isPassed()) {
+            Baseline.of(metrics).write(path);
+            Log.debug("Baseline written to {}", path);
+        }
+    }
+
+    public double getBaselineTolerance() {
+        Double tolerance = this.runSpec.getReportSpec().getBaselineTolerance();
+        return tolerance == null ? Baseline.DEFAULT_TOLERANCE : tolerance;
+    }
+
+    private void printBaseline() {
+        if (Console.getLevel() == Console.Level.OFF) {
+            return;
+        }
+        Console.summary(colorize(" Baseline " + this.baseline.getDate() + " ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        for (Baseline.Delta delta : this.baselineDeltas) {
+            String status = delta.getStatus().toUpperCase(Locale.ROOT);
+            Console.summary(
+                    Baseline.REGRESSION.equals(delta.getStatus()) ? colorize(" " + status + " ", BACK_COLOR(243, 80, 127), BLACK_TEXT(), BOLD()) : " " + status + " ",
+                    " ", colorize(delta.getName(), BOLD()),
+                    " p50=", delta.getP50() + " ms (" + String.format(Locale.ROOT, "%+.1f", delta.getP50Change()) + "%)",
+                    " p95=", delta.getP95() + " ms (" + String.format(Locale.ROOT, "%+.1f", delta.getP95Change()) + "%)"
+            );
+        }
+        Console.summary("\n");
+    }
+
+    public Stream<DynamicContainer> replay() {
+        return scenario.replay();
+    }
+
+    private void prepare() {
+        Iterable<DataSpec> i;
+        if (this.inputSource != null) {
+            i = this.inputSource;
+        } else if (this.spec.getInputs().size() == 0) {
             Log.debug("Scenario inputs not found. Running one round");
-            i.add(new DataSpec());
+            i = List.of(new DataSpec());
         }else{
             i = this.spec.getInputs();
         }
         scenario = new Scenario();
         scenario.initialize(this.spec, i);
-        return scenario.run();
+        scenario.getContext().setBodyRetention(BodyRetention.of(this.runSpec.getReportSpec()));
+        this.connectionPools = new ConnectionPools();
+        scenario.getContext().setConnectionPools(this.connectionPools);
+        List<StepSpec> steps = new ArrayList<>(this.spec.getPreSteps());
+        steps.addAll(this.spec.getSteps());
+        steps.addAll(this.spec.getPostSteps());
+        this.connectionPools.prepare(steps, scenario.getContext());
+        this.reportSpool = new ReportSpool(this);
+        scenario.setSectionListener(this.reportSpool::append);
+        if (this.runSpec.getReportSpec().getRefreshInterval() != null) {
+            this.reportSpool.startRefresh(this.runSpec.getReportSpec().getRefreshInterval());
+        }
+        if (scenario.isLoad()) {
+            scenario.setEngine(new ExecutionEngine(this.spec.getLoad().getUsers(), isVirtualThreadsEnabled()));
+        } else if (scenario.isParallel()) {
+            scenario.setEngine(new ExecutionEngine(this.spec.getParallel(), isVirtualThreadsEnabled()));
+        }
+        if (scenario.isConcurrentSteps()) {
+            scenario.setStepEngine(new ExecutionEngine(this.spec.getConcurrentSteps(), isVirtualThreadsEnabled()));
+        }
+    }
+
+    private boolean isVirtualThreadsEnabled() {
+        Object value = this.spec.getConfigs().get("TKY_VIRTUAL_THREADS");
+        return value == null || !StringUtils.equalsIgnoreCase(String.valueOf(value), "FALSE");
     }
 
 
@@ -66,6 +187,12 @@ public class SpecRunner {
         }
         Log.debug("All loaded config for scenario = {}", configs);
         this.spec.setConfigs(configs);
+        if(this.runSpec.getParallel() != null) {
+            this.spec.setParallel(this.runSpec.getParallel());
+        }
+        if(this.runSpec.getLoad() != null) {
+            this.spec.setLoad(this.runSpec.getLoad());
+        }
         parseInputFile();
     }
 
@@ -73,47 +200,7 @@ public class SpecRunner {
         if(this.runSpec.getInputFile() == null) {
             return;
         }
-        try {
-            CSVReader reader = new CSVReader(new StringReader(FileReader.readFile(this.runSpec.getInputFile())));
-            List<String[]> lines = reader.readAll();
-            if(lines.size() <= 1) {
-                throw new RuntimeException("Input files must have rows");
-            }
-            String[] header = lines.get(0);
-            if(header.length == 0) {
-                throw new RuntimeException("Input files invalid header, header should be in #Name#,col1,col2,col3....");
-            }
-            Map<Integer, String> format = new HashMap<>();
-            for (int i = 0; i < header.length; i++) {
-                format.put(i, header[i]);
-            }
-            List<DataSpec> inputs = new ArrayList<>();
-            for (int i = 1; i < lines.size(); i++) {
-                if(lines.get(i).length != format.size()) {
-                    throw new RuntimeException("Input files invalid row (column count doesnt match) " + i);
-                }
-                DataSpec dataSpec = new DataSpec();
-
-                Map<String, Object> data = new HashMap<>();
-                for (Map.Entry<Integer, String> entry : format.entrySet()) {
-                    if(Objects.equals(entry.getValue(), "#Name#")) {
-                        dataSpec.setName(lines.get(i)[entry.getKey()]);
-                        continue;
-                    }
-                    String inputValue = lines.get(i)[entry.getKey()];
-                    inputValue = VariableParser.replaceVariables(inputValue,this::getVariables);
-                    data.put(entry.getValue(), inputValue) ;
-                }
-                if(dataSpec.getName() == null) {
-                    dataSpec.setName("Case " + i);
-                }
-                dataSpec.setData(data);
-                inputs.add(dataSpec);
-            }
-            this.spec.setInputs(inputs);
-        }catch (Exception e) {
-            throw new RuntimeException("Error while parsing input file", e);
-        }
+        this.inputSource = new CsvInputSource(this.runSpec.getInputFile(), this::getVariables);
     }
     private void validateFiles() {
         Map<String, String> inputs = new HashMap<>();
@@ -125,6 +212,29 @@ public class SpecRunner {
                 inputs.put(input.getName(), input.getName());
             }
         }
+        RunSpec.ReportSpec reportSpec = this.runSpec.getReportSpec();
+        if (reportSpec.getMaxBodySize() != null && reportSpec.getMaxBodySize() < 1) {
+            throw new IllegalArgumentException("Max body size must be greater than 0. Invalid max body size " + reportSpec.getMaxBodySize());
+        }
+        if (reportSpec.getBaselineTolerance() != null && reportSpec.getBaselineTolerance() < 0) {
+            throw new IllegalArgumentException("Baseline tolerance cannot be negative. Invalid baseline tolerance " + reportSpec.getBaselineTolerance());
+        }
+        if (reportSpec.getRefreshInterval() != null && reportSpec.getRefreshInterval() < 1) {
+            throw new IllegalArgumentException("Report refresh interval must be greater than 0. Invalid refresh interval " + reportSpec.getRefreshInterval());
+        }
+        if (reportSpec.getBodyOverflow() != null && !BodyRetention.TRUNCATE.equalsIgnoreCase(reportSpec.getBodyOverflow())
+                && !BodyRetention.SPILL.equalsIgnoreCase(reportSpec.getBodyOverflow())) {
+            throw new IllegalArgumentException("Invalid body overflow " + reportSpec.getBodyOverflow() + ". Body overflow should be truncate or spill");
+        }
+        if(this.getSpec().getParallel() != null && this.getSpec().getParallel() < 1) {
+            throw new IllegalArgumentException("Parallel must be greater than 0. Invalid parallel " + this.getSpec().getParallel());
+        }
+        if(this.getSpec().getConcurrentSteps() != null && this.getSpec().getConcurrentSteps() < 1) {
+            throw new IllegalArgumentException("Concurrent steps must be greater than 0. Invalid concurrent steps " + this.getSpec().getConcurrentSteps());
+        }
+        if(this.getSpec().getLoad() != null) {
+            validateLoad(this.getSpec().getLoad());
+        }
         Map<String, String> stepIds = new HashMap<>();
         Map<String, String> stepNames = new HashMap<>();
 
@@ -164,6 +274,60 @@ public class SpecRunner {
             stepNames.put(step.getName(), step.getName());
             validateStep(step);
         }
+        if(this.getSpec().getThresholds() != null) {
+            for (ThresholdSpec threshold : this.getSpec().getThresholds()) {
+                validateThreshold(threshold);
+            }
+        }
+    }
+
+    private void validateThreshold(ThresholdSpec threshold) {
+        if(!ThresholdSpec.METRICS.contains(threshold.getMetric())) {
+            throw new IllegalArgumentException("Invalid threshold metric " + threshold.getMetric() + ". Metric should be one of " + String.join(", ", ThresholdSpec.METRICS));
+        }
+        if(threshold.getMin() == null && threshold.getMax() == null) {
+            throw new IllegalArgumentException("Threshold " + threshold.getMetric() + " must have a min or max");
+        }
+        if(threshold.getStep() != null && this.getSpec().getSteps().stream().noneMatch(s -> threshold.getStep().equals(s.getId()))) {
+            throw new IllegalArgumentException("Invalid threshold step " + threshold.getStep() + ". Step should be an id of the scenario steps");
+        }
+    }
+
+    private void validateLoad(LoadSpec load) {
+        if(load.getUsers() == null || load.getUsers() < 1) {
+            throw new IllegalArgumentException("Load users must be greater than 0");
+        }
+        if(load.getRampUp() != null && load.getRampUp() < 0) {
+            throw new IllegalArgumentException("Load ramp up cannot be negative");
+        }
+        if(load.getDuration() != null && load.getDuration() < 1) {
+            throw new IllegalArgumentException("Load duration must be greater than 0");
+        }
+        if(load.getIterations() != null && load.getIterations() < 1) {
+            throw new IllegalArgumentException("Load iterations must be greater than 0");
+        }
+        if(load.getMode() != null && !load.isArrivalRate() && !LoadSpec.CLOSED.equalsIgnoreCase(load.getMode())) {
+            throw new IllegalArgumentException("Invalid load mode " + load.getMode() + ". Load mode should be closed or arrival-rate");
+        }
+        if(!load.isArrivalRate()) {
+            return;
+        }
+        if(load.getStages() == null || load.getStages().isEmpty()) {
+            validateStage(new LoadSpec.Stage(load.getRate(), load.getDuration()));
+        } else {
+            for (LoadSpec.Stage stage : load.getStages()) {
+                validateStage(stage);
+            }
+        }
+    }
+
+    private void validateStage(LoadSpec.Stage stage) {
+        if(stage.getRate() == null || stage.getRate() < 1) {
+            throw new IllegalArgumentException("Arrival rate must be greater than 0");
+        }
+        if(stage.getDuration() == null || stage.getDuration() < 1) {
+            throw new IllegalArgumentException("Arrival rate duration must be greater than 0");
+        }
     }
 
     private void validateStep(StepSpec stepSpec) {
@@ -178,7 +342,38 @@ public class SpecRunner {
         if(StringUtils.isEmpty(stepSpec.getRef())) {
             throw new IllegalArgumentException("Step ref cannot be null");
         }
+        if("http".equalsIgnoreCase(stepSpec.getType())) {
+            validatePool(stepSpec);
+        }
+    }
+
+    private void validatePool(StepSpec stepSpec) {
+        // Options known from the configs are checked before the run, options using other values when the step runs
+        Map<String, Object> options = getOptions(stepSpec);
+        if(options == null) {
+            return;
+        }
+        VariableParser.ValueProvider provider = key -> {
+            Object value = options.get(key);
+            if(value == null) {
+                value = stepSpec.getConfigs() != null && stepSpec.getConfigs().containsKey(key) ? stepSpec.getConfigs().get(key) : this.spec.getConfigs().get(key);
+            }
+            return value == null || String.valueOf(value).contains("${") ? null : String.valueOf(value);
+        };
+        HttpRequestStep.validatePool(provider, stepSpec.getName());
+    }
 
+    private Map<String, Object> getOptions(StepSpec stepSpec) {
+        // Steps with a missing or invalid ref fail when they run
+        try {
+            HttpSpecTemplate template = HttpSpecTemplate.of(stepSpec.getRef());
+            if(!template.isCompiled() || template.getSpec().getOptions() == null) {
+                return Map.of();
+            }
+            return template.getSpec().getOptions();
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     private String getVariables(String key) {
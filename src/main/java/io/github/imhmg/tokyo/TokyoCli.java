@@ -0,0 +1,174 @@
+package io.github.imhmg.tokyo;
+
+import io.github.imhmg.tokyo.commons.Console;
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+
+import java.util.*;
+
+/**
+ * Runs a scenario without JUnit or Gradle.
+ * Exit code is 0 when every step passed, 1 when a step failed and 2 for invalid arguments or errors.
+ */
+public class TokyoCli {
+
+    public static final int EXIT_PASSED = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: tokyo --scenario <file> [options]",
+            "",
+            "Options:",
+            "  --scenario <file>       Scenario spec file",
+            "  --input <file>          CSV input file",
+            "  --config <file>         Config file, can be repeated",
+            "  --set <key=value>       Config value, can be repeated",
+            "  --parallel <n>          Number of input rows running in parallel",
+            "  --report-dir <dir>      Report directory",
+            "  --report-file <file>    Report file name",
+            "  --report-title <title>  Report title",
+            "  --max-body-size <kb>    Response bodies above this size are truncated in the report",
+            "  --body-overflow <mode>  truncate or spill bodies above max body size",
+            "  --report-refresh <s>    Write a partial report every s seconds",
+            "  --baseline              Compare step latencies with the baseline in the report directory",
+            "  --baseline-tolerance <%> Percent a step may get slower before it is a regression",
+            "  --update-baseline       Replace the baseline with this run when it passed",
+            "  --console <level>       Console output, off, summary, failures or full",
+            "  --debug                 Enable debug logs",
+            "  --help                  Show this help"
+    );
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    public static int run(String[] args) {
+        RunSpec runSpec;
+        try {
+            runSpec = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            Console.message(e.getMessage());
+            Console.message(USAGE);
+            Console.flush();
+            return EXIT_ERROR;
+        }
+        if (runSpec == null) {
+            Console.message(USAGE);
+            Console.flush();
+            return EXIT_PASSED;
+        }
+        SpecRunner specRunner;
+        try {
+            specRunner = new SpecRunner(runSpec);
+            specRunner.execute();
+        } catch (Exception e) {
+            Console.message("Error while running scenario : " + e.getMessage());
+            Log.error("Error while running scenario", e);
+            Console.flush();
+            return EXIT_ERROR;
+        }
+        Console.flush();
+        return specRunner.getScenario().isPassed() ? EXIT_PASSED : EXIT_FAILED;
+    }
+
+    static RunSpec parseArgs(String[] args) {
+        RunSpec runSpec = RunSpec.builder()
+                .configFiles(new ArrayList<>())
+                .configs(new HashMap<>())
+                .reportSpec(new RunSpec.ReportSpec())
+                .build();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help":
+                case "-h":
+                    return null;
+                case "--debug":
+                    Log.isDebug = true;
+                    break;
+                case "--console":
+                    Console.setLevel(Console.parseLevel(value(args, ++i, arg)));
+                    break;
+                case "--scenario":
+                    runSpec.setScenarioSpecFile(value(args, ++i, arg));
+                    break;
+                case "--input":
+                    runSpec.setInputFile(value(args, ++i, arg));
+                    break;
+                case "--config":
+                    runSpec.getConfigFiles().add(value(args, ++i, arg));
+                    break;
+                case "--set":
+                    String config = value(args, ++i, arg);
+                    int index = config.indexOf('=');
+                    if (index <= 0) {
+                        throw new IllegalArgumentException("Invalid config " + config + ". Config should be in key=value format");
+                    }
+                    runSpec.getConfigs().put(config.substring(0, index), config.substring(index + 1));
+                    break;
+                case "--parallel":
+                    runSpec.setParallel(toInt(value(args, ++i, arg), arg));
+                    break;
+                case "--report-dir":
+                    runSpec.getReportSpec().setDir(value(args, ++i, arg));
+                    break;
+                case "--report-file":
+                    runSpec.getReportSpec().setFile(value(args, ++i, arg));
+                    break;
+                case "--report-title":
+                    runSpec.getReportSpec().setTitle(value(args, ++i, arg));
+                    break;
+                case "--max-body-size":
+                    runSpec.getReportSpec().setMaxBodySize(toInt(value(args, ++i, arg), arg));
+                    break;
+                case "--body-overflow":
+                    runSpec.getReportSpec().setBodyOverflow(value(args, ++i, arg));
+                    break;
+                case "--report-refresh":
+                    runSpec.getReportSpec().setRefreshInterval(toInt(value(args, ++i, arg), arg));
+                    break;
+                case "--baseline":
+                    runSpec.getReportSpec().setBaseline(true);
+                    break;
+                case "--baseline-tolerance":
+                    runSpec.getReportSpec().setBaseline(true);
+                    runSpec.getReportSpec().setBaselineTolerance(toDouble(value(args, ++i, arg), arg));
+                    break;
+                case "--update-baseline":
+                    runSpec.getReportSpec().setBaseline(true);
+                    runSpec.getReportSpec().setUpdateBaseline(true);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (runSpec.getScenarioSpecFile() == null) {
+            throw new IllegalArgumentException("Scenario file is required");
+        }
+        return runSpec;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length || args[index].startsWith("--")) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static double toDouble(String value, String option) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number " + value + " for " + option);
+        }
+    }
+
+    private static int toInt(String value, String option) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number " + value + " for " + option);
+        }
+    }
+}
@@ -1,38 +1,75 @@
 package io.github.imhmg.tokyo;
 
-import io.github.imhmg.tokyo.commons.ReportGenerator;
+import io.github.imhmg.tokyo.core.ExecutionEngine;
 import io.github.imhmg.tokyo.core.spec.RunSpec;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DynamicContainer;
 import org.junit.jupiter.api.TestFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class TokyoRunner {
 
-    List<SpecRunner> specs = new ArrayList<>();
     private static List<RunSpec> runSpecs = new ArrayList<>();
+    private static int parallelSpecs = 1;
 
     @TestFactory
     Stream<DynamicContainer> runner() {
+        if (parallelSpecs > 1) {
+            return runConcurrently();
+        }
         return runSpecs.stream().map(run -> {
             SpecRunner specRunner = new SpecRunner(run);
             String envDescription = "";
-            specs.add(specRunner);
             return DynamicContainer.dynamicContainer("Spec : " + specRunner.getSpec().getName() + envDescription, specRunner.run());
         });
     }
 
-    public static void addRunSpec(RunSpec spec) {
-        runSpecs.add(spec);
+    private Stream<DynamicContainer> runConcurrently() {
+        List<SpecRunner> runners = new ArrayList<>();
+        for (RunSpec run : runSpecs) {
+            runners.add(new SpecRunner(run));
+        }
+        return runConcurrently(runners, parallelSpecs);
     }
 
-    @AfterEach
-    public  void generateReport() {
-        ReportGenerator.generateReports(this.specs);
+    static Stream<DynamicContainer> runConcurrently(List<SpecRunner> runners, int parallel) {
+        // Specs execute on a bounded pool, JUnit results are replayed in registration order
+        ExecutionEngine engine = new ExecutionEngine(parallel, true);
+        List<CompletableFuture<Void>> executions = new ArrayList<>();
+        for (SpecRunner specRunner : runners) {
+            executions.add(engine.submit(() -> {
+                specRunner.execute();
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(executions.toArray(new CompletableFuture[0])).whenComplete((r, e) -> engine.shutdown());
+
+        return IntStream.range(0, runners.size()).mapToObj(i -> {
+            SpecRunner specRunner = runners.get(i);
+            return DynamicContainer.dynamicContainer("Spec : " + specRunner.getSpec().getName(), Stream.of("1").flatMap(s -> {
+                try {
+                    executions.get(i).join();
+                } catch (CompletionException e) {
+                    throw new RuntimeException("Error while running spec " + specRunner.getSpec().getName(), e.getCause());
+                }
+                return specRunner.replay();
+            }));
+        });
     }
 
+    public static void addRunSpec(RunSpec spec) {
+        runSpecs.add(spec);
+    }
 
+    public static void setParallelSpecs(int parallel) {
+        if (parallel < 1) {
+            throw new IllegalArgumentException("Parallel specs must be greater than 0");
+        }
+        parallelSpecs = parallel;
+    }
 
 }
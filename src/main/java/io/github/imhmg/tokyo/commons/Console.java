@@ -1,11 +1,173 @@
 package io.github.imhmg.tokyo.commons;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Console output of scenarios. Lines are written by a background thread from a bounded queue,
+ * so steps never wait for stdout. Step output is dropped and counted when the queue is full,
+ * summaries and messages wait for space and are never dropped.
+ *
+ * OFF prints nothing, SUMMARY prints one line per step, FAILURES prints the output of failed
+ * steps only and FULL prints everything. Level is set with the TKY_CONSOLE env variable.
+ */
 public class Console {
-    public static void print(String...text) {
+
+    public enum Level {
+        OFF, SUMMARY, FAILURES, FULL
+    }
+
+    private static final int CAPACITY = 16384;
+    private static final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+    // Output of the step running on the thread, only kept with the FAILURES level
+    private static final ThreadLocal<List<String>> stepOutput = new ThreadLocal<>();
+    private static volatile Level level = parseLevel(System.getenv("TKY_CONSOLE"));
+    private static volatile Thread writer;
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level level) {
+        Console.level = level == null ? Level.FULL : level;
+    }
+
+    public static Level parseLevel(String value) {
+        if (value == null || value.isBlank()) {
+            return Level.FULL;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid console level " + value + ". Level should be off, summary, failures or full");
+        }
+    }
+
+    public static boolean isEnabled() {
+        // Callers check this before formatting step output
+        return level == Level.FULL || (level == Level.FAILURES && stepOutput.get() != null);
+    }
+
+    public static void print(String... text) {
+        if (!isEnabled()) {
+            return;
+        }
+        String line = join(text);
+        List<String> output = stepOutput.get();
+        if (output != null) {
+            output.add(line);
+        } else {
+            write(line, true);
+        }
+    }
+
+    public static void summary(String... text) {
+        // Summaries are printed with every level except OFF
+        if (level != Level.OFF) {
+            write(join(text), false);
+        }
+    }
+
+    public static void message(String... text) {
+        // Messages are not step output, they are printed with every level
+        write(join(text), false);
+    }
+
+    public static void beginStep() {
+        if (level == Level.FAILURES) {
+            stepOutput.set(new ArrayList<>());
+        }
+    }
+
+    public static void endStep(boolean failed) {
+        List<String> output = stepOutput.get();
+        stepOutput.remove();
+        if (output != null && failed && !output.isEmpty()) {
+            write(String.join("\n", output), true);
+        }
+    }
+
+    public static void flush() {
+        if (writer == null) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            queue.put(latch);
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String join(String... text) {
         StringBuilder s = new StringBuilder();
         for (String s1 : text) {
             s.append(s1);
         }
-        System.out.println(s.toString());
+        return s.toString();
+    }
+
+    private static void write(String line, boolean droppable) {
+        if (writer == null) {
+            start();
+        }
+        if (droppable) {
+            if (!queue.offer(line)) {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            queue.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(Console::writeLines, "tky-console");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Console::flush));
+    }
+
+    private static void writeLines() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            StringBuilder out = new StringBuilder();
+            List<CountDownLatch> flushed = new ArrayList<>();
+            for (Object item : batch) {
+                if (item instanceof CountDownLatch) {
+                    flushed.add((CountDownLatch) item);
+                } else {
+                    out.append(item).append('\n');
+                }
+            }
+            long count = dropped.getAndSet(0);
+            if (count > 0) {
+                out.append("... ").append(count).append(" console lines dropped, output is slower than the scenario\n");
+            }
+            System.out.print(out);
+            System.out.flush();
+            flushed.forEach(CountDownLatch::countDown);
+            batch.clear();
+        }
     }
 }
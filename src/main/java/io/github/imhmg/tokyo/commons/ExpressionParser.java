@@ -1,13 +1,26 @@
 package io.github.imhmg.tokyo.commons;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import io.github.imhmg.tokyo.commons.assertions.Operator;
+import io.github.imhmg.tokyo.core.http.HttpTimings;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 public class ExpressionParser {
 
+    private static final int MAX_JSON_PATHS = 4096;
+    private static final Map<String, JsonPath> jsonPaths = new ConcurrentHashMap<>();
+    private static final Set<Operator> NUMERIC_OPERATORS = EnumSet.of(Operator.LT, Operator.LTE, Operator.GT, Operator.GTE, Operator.RANGE);
+
     @Getter
     @Setter
     public static class Result {
@@ -22,7 +35,8 @@ public class ExpressionParser {
     public enum Source {
         BODY("@body", "@body "),
         HEADER("@header", "@header "),
-        STATUS("@status", "@status ");
+        STATUS("@status", "@status "),
+        TIME("@time", "@time ");
 
         private final String replace;
         private final String syntax;
@@ -74,6 +88,12 @@ public class ExpressionParser {
     }
 
     public static Result parseExpression(String expression) {
+        Result result = parse(expression);
+        validateExpectedValue(result, expression);
+        return result;
+    }
+
+    private static Result parse(String expression) {
 
         if (StringUtils.startsWith(expression, Source.STATUS.syntax)) {
             return parseStatus(expression);
@@ -87,14 +107,19 @@ public class ExpressionParser {
             return parseBody(expression);
         }
 
+        if (StringUtils.startsWith(expression, Source.TIME.syntax)) {
+            return parseTime(expression);
+        }
+
         throw new IllegalArgumentException("Unable to parse expression = " + expression);
     }
 
     public static String extractValueByFormatAndExpression(String input, Format format, String expression) {
+        if (format == Format.JSON) {
+            return extractJsonValue(() -> JsonPath.parse(input), expression);
+        }
         try {
-            if (format == Format.JSON) {
-                return JsonPath.parse(input).read(expression).toString();
-            } else if (format == Format.XML) {
+            if (format == Format.XML) {
                 throw new UnsupportedOperationException("xml expression not implemented yet");
             } else if (format == Format.RAW) {
                 return input;
@@ -106,6 +131,57 @@ public class ExpressionParser {
         throw new IllegalArgumentException("Unexpected format " + format);
     }
 
+    public static String extractJsonValue(Supplier<DocumentContext> document, String expression) {
+        // Document is supplied by the caller, so a parsed response can be shared by all asserts and captures
+        try {
+            return document.get().read(compileJsonPath(expression)).toString();
+        } catch (Exception e) {
+            Log.error("Error occurred while getting value for expression = {}", expression);
+            return null;
+        }
+    }
+
+    private static JsonPath compileJsonPath(String expression) {
+        JsonPath path = jsonPaths.get(expression);
+        if (path != null) {
+            return path;
+        }
+        if (jsonPaths.size() >= MAX_JSON_PATHS) {
+            jsonPaths.clear();
+        }
+        path = JsonPath.compile(expression);
+        jsonPaths.put(expression, path);
+        return path;
+    }
+
+    private static void validateExpectedValue(Result result, String expression) {
+        // A wrong expected value of a numeric operator is an error in the expression, not a failed assert
+        if (!NUMERIC_OPERATORS.contains(result.getOperator())) {
+            return;
+        }
+        String expected = result.getExpectedValue();
+        if (result.getOperator() == Operator.RANGE) {
+            String[] range = StringUtils.splitByWholeSeparator(expected, "...");
+            if (range == null || range.length != 2 || !isNumber(range[0]) || !isNumber(range[1])) {
+                throw new IllegalArgumentException("Invalid range " + expected + " in expression " + expression + ". Range should be min...max");
+            }
+        } else if (!isNumber(expected)) {
+            throw new IllegalArgumentException("Expected value " + expected + " of expression " + expression + " is not a number");
+        }
+    }
+
+    private static boolean isNumber(String value) {
+        if (StringUtils.isBlank(value)) {
+            return false;
+        }
+        try {
+            new BigDecimal(value.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private static Result parseStatus(String expression) {
 
         if (!expression.startsWith(Source.STATUS.replace) && !expression.equals(Source.STATUS.syntax)) {
@@ -134,6 +210,34 @@ public class ExpressionParser {
         return result;
     }
 
+    private static Result parseTime(String expression) {
+
+        if (!expression.startsWith(Source.TIME.replace) && !expression.equals(Source.TIME.syntax)) {
+            throw new IllegalArgumentException("Unable to parse expression " + expression);
+        }
+        Result result = new Result();
+        result.setSource(Source.TIME);
+        expression = StringUtils.removeStart(expression, Source.TIME.syntax);
+        String key = expression;
+        for (Operator operator : Operator.values()) {
+            int index = expression.indexOf(" " + operator.getSyntax() + " ");
+            if (index >= 0) {
+                key = expression.substring(0, index);
+                result.setOperator(operator);
+                result.setExpectedValue(expression.substring(index + operator.getSyntax().length() + 2).trim());
+                break;
+            }
+        }
+        // Key is a request phase, the total time is used without a key
+        if (StringUtils.isNotBlank(key)) {
+            if (HttpTimings.Phase.of(key.trim()) == null) {
+                throw new IllegalArgumentException("Invalid @time expression. Unknown phase " + key.trim() + ", phase should be dns, connect, tls, requestWrite, firstByte, headers or download");
+            }
+            result.setKey(key.trim());
+        }
+        return result;
+    }
+
     private static Result parseBody(String expression) {
         Result result = new Result();
         result.setSource(Source.BODY);
@@ -2,8 +2,9 @@ package io.github.imhmg.tokyo.commons;
 
 import org.apache.commons.io.FileUtils;
 
-import java.io.File;
+import java.io.*;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 public class FileReader {
 
@@ -18,6 +19,22 @@ public class FileReader {
         return new String(readClassPath(path));
     }
 
+    public static Reader openFile(String path) {
+        if (path == null) {
+            throw new RuntimeException("File name cannot be null");
+        }
+        try {
+            String absPath = getAbsPathIfExists(path);
+            InputStream stream = absPath != null ? new FileInputStream(absPath) : FileReader.class.getClassLoader().getResourceAsStream(path);
+            if (stream == null) {
+                throw new FileNotFoundException(path);
+            }
+            return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to read file = " + path, e);
+        }
+    }
+
     private static byte[] readClassPath(String path) {
         try {
             URL resource = FileReader.class.getClassLoader().getResource(path);
@@ -1,12 +1,16 @@
 package io.github.imhmg.tokyo.commons;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
+import java.io.IOException;
+import java.io.Writer;
+
 public class JsonParser {
     private static ObjectMapper mapper;
     static {
@@ -23,4 +27,19 @@ public class JsonParser {
         }
     }
 
+    public static <T> T fromJson(String json, Class<T> type) throws RuntimeException {
+        try {
+            return mapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static JsonGenerator createGenerator(Writer writer) throws IOException {
+        // Writer is owned by the caller, closing the generator only flushes it
+        JsonGenerator generator = mapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
 }
@@ -0,0 +1,161 @@
+package io.github.imhmg.tokyo.commons;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Reads values of simple json paths ($.a.b, $.a[0], $['a']) in one pass over a json stream.
+ * Only the values of the requested paths are kept, everything else is skipped without
+ * building a tree. Paths with wildcards, filters or deep scans are not supported.
+ */
+public class JsonStreamExtractor {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static boolean isSupported(String path) {
+        return compile(path) != null;
+    }
+
+    public static Map<String, String> extract(InputStream input, Collection<String> paths) {
+        Map<String, List<Object>> compiled = new LinkedHashMap<>();
+        for (String path : paths) {
+            List<Object> tokens = compile(path);
+            if (tokens == null) {
+                throw new IllegalArgumentException("Json path " + path + " cannot be read from a stream");
+            }
+            compiled.put(path, tokens);
+        }
+        Map<String, String> values = new HashMap<>();
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != null) {
+                read(parser, new ArrayList<>(), compiled, values);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read json body", e);
+        }
+        return values;
+    }
+
+    private static void read(JsonParser parser, List<Object> path, Map<String, List<Object>> paths, Map<String, String> values) throws IOException {
+        boolean exact = false;
+        boolean prefix = false;
+        for (List<Object> tokens : paths.values()) {
+            if (tokens.size() >= path.size() && tokens.subList(0, path.size()).equals(path)) {
+                exact |= tokens.size() == path.size();
+                prefix = true;
+            }
+        }
+        if (!prefix) {
+            parser.skipChildren();
+            return;
+        }
+        if (exact) {
+            // Value of a requested path is read as a tree, paths below it are resolved from the tree
+            JsonNode node = mapper.readTree(parser);
+            for (Map.Entry<String, List<Object>> e : paths.entrySet()) {
+                List<Object> tokens = e.getValue();
+                if (tokens.size() >= path.size() && tokens.subList(0, path.size()).equals(path)) {
+                    values.put(e.getKey(), toString(find(node, tokens.subList(path.size(), tokens.size()))));
+                }
+            }
+            return;
+        }
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                path.add(name);
+                read(parser, path, paths, values);
+                path.remove(path.size() - 1);
+            }
+        } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                path.add(index++);
+                read(parser, path, paths, values);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static JsonNode find(JsonNode node, List<Object> tokens) {
+        for (Object token : tokens) {
+            if (node == null) {
+                return null;
+            }
+            node = token instanceof Integer ? (node.isArray() ? node.get((Integer) token) : null) : (node.isObject() ? node.get((String) token) : null);
+        }
+        return node;
+    }
+
+    private static String toString(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        if (node.isNumber()) {
+            return node.numberValue().toString();
+        }
+        if (node.isValueNode()) {
+            return node.asText();
+        }
+        // Objects and arrays are rendered the same way as values read by JsonPath from the whole body
+        return JsonPath.parse(node.toString()).read("$").toString();
+    }
+
+    static List<Object> compile(String path) {
+        if (path == null || !path.startsWith("$")) {
+            return null;
+        }
+        List<Object> tokens = new ArrayList<>();
+        int i = 1;
+        int length = path.length();
+        while (i < length) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                while (i < length && isNameChar(path.charAt(i))) {
+                    i++;
+                }
+                if (start == i) {
+                    return null;
+                }
+                tokens.add(path.substring(start, i));
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    return null;
+                }
+                String content = path.substring(i + 1, end).trim();
+                if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"') && content.charAt(content.length() - 1) == content.charAt(0)) {
+                    String name = content.substring(1, content.length() - 1);
+                    if (name.indexOf('\'') >= 0 || name.indexOf('"') >= 0) {
+                        return null;
+                    }
+                    tokens.add(name);
+                } else if (!content.isEmpty() && content.chars().allMatch(Character::isDigit)) {
+                    tokens.add(Integer.parseInt(content));
+                } else {
+                    return null;
+                }
+                i = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+}
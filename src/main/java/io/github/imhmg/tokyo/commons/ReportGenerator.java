@@ -1,56 +1,134 @@
 package io.github.imhmg.tokyo.commons;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.github.imhmg.tokyo.SpecRunner;
 import io.github.imhmg.tokyo.commons.assertions.AssertResult;
 import io.github.imhmg.tokyo.core.Step;
 import io.github.imhmg.tokyo.core.http.HttpRequestStep;
 import io.github.imhmg.tokyo.core.http.HttpResponse;
 import io.github.imhmg.tokyo.core.http.HttpSpec;
+import io.github.imhmg.tokyo.core.http.HttpTimings;
+import io.github.imhmg.tokyo.core.metrics.Baseline;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.metrics.StepMetrics;
+import io.github.imhmg.tokyo.core.metrics.Thresholds;
 import io.restassured.http.Header;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
 public class ReportGenerator {
 
-    public static void generateReports(List<SpecRunner> specs) {
+    private static String[] template;
 
-        for (SpecRunner spec : specs) {
-            Object report = generateReportForSpecRunner(spec);
-            String file = spec.getRunSpec().getReportSpec().getFile();
-            String dir = spec.getRunSpec().getReportSpec().getDir();
+    public static synchronized void generateReports(List<SpecRunner> specs) {
+        List<SpecRunner> snapshot;
+        synchronized (specs) {
+            snapshot = new ArrayList<>(specs);
+        }
+        for (SpecRunner spec : snapshot) {
+            generateReport(spec);
+        }
+    }
 
-            if (file == null) {
-                String r = spec.getSpec().getName();
-                r = r.replaceAll("[\\\\/:*?\"<>|]", "_");
-                file = r + "_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".html";
-            }
+    public static synchronized void generateReport(SpecRunner spec) {
+        if (spec.getScenario() == null || spec.getReportSpool() == null) {
+            Log.debug("Spec not started yet {}", spec.getSpec().getName());
+            return;
+        }
+        String path = spec.getReportSpool().getPath();
+        saveTestReport(spec, path, true);
+        if (spec.getRunSpec().getReportSpec().getCompletion() != null) {
+            Log.debug("Calling completion block");
+            spec.getRunSpec().getReportSpec().getCompletion().completion(path);
+        }
+    }
 
-            if(dir == null) {
-                dir = StringUtils.defaultString(System.getenv("TKY_REPORT_DIR"), "build/tokyo");
-            }
+    public static synchronized void refreshReport(SpecRunner spec) {
+        // Partial report of a running spec, only finished sections are included
+        if (spec.getScenario() == null || spec.getReportSpool() == null) {
+            return;
+        }
+        saveTestReport(spec, spec.getReportSpool().getPath(), false);
+    }
 
-            if(!dir.endsWith("/")) {
-                dir += "/";
-            }
+    public static String getReportPath(SpecRunner spec) {
+        String file = spec.getRunSpec().getReportSpec().getFile();
+        if (file == null) {
+            file = getFileName(spec) + "_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".html";
+        }
+        return getReportDir(spec) + file;
+    }
+
+    public static String getBaselinePath(SpecRunner spec) {
+        // One baseline per scenario, kept next to the reports
+        return getReportDir(spec) + getFileName(spec) + ".baseline.json";
+    }
+
+    private static String getReportDir(SpecRunner spec) {
+        String dir = spec.getRunSpec().getReportSpec().getDir();
+        if(dir == null) {
+            dir = StringUtils.defaultString(System.getenv("TKY_REPORT_DIR"), "build/tokyo");
+        }
+
+        if(!dir.endsWith("/")) {
+            dir += "/";
+        }
+        return dir;
+    }
 
-            saveTestReport(JsonParser.toJson(report), dir + file);
-            if (spec.getRunSpec().getReportSpec().getCompletion() != null) {
-                Log.debug("Calling completion block");
-                spec.getRunSpec().getReportSpec().getCompletion().completion(dir + file);
+    private static String getFileName(SpecRunner spec) {
+        return spec.getSpec().getName().replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+    private static void saveTestReport(SpecRunner spec, String filePath, boolean complete) {
+        // Report data is streamed into the template, it is written to a temp file and moved when complete
+        File file = new File(filePath);
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        String[] parts = getTemplate();
+        try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(parts[0]);
+            try (JsonGenerator generator = JsonParser.createGenerator(writer)) {
+                writeReport(generator, writer, spec, complete);
             }
+            writer.write(parts[1]);
+        } catch (IOException e) {
+            Log.error("Error while creating report", e.getMessage());
+            temp.delete();
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Log.debug("Report created at = {}", file.getAbsoluteFile());
+        } catch (IOException e) {
+            Log.error("Error while creating report", e.getMessage());
         }
     }
 
-    private static Map<String, Object> generateReportForSpecRunner(SpecRunner spec) {
-        Map<String, Object> report = new HashMap<>();
+    private static synchronized String[] getTemplate() {
+        if (template == null) {
+            String s = FileReader.readFile("tky-test-report.html");
+            int index = s.indexOf("__TESTDATA__");
+            if (index < 0) {
+                throw new RuntimeException("Report template has no __TESTDATA__ placeholder");
+            }
+            template = new String[]{s.substring(0, index), s.substring(index + "__TESTDATA__".length())};
+        }
+        return template;
+    }
 
+    private static void writeReport(JsonGenerator generator, Writer writer, SpecRunner spec, boolean complete) throws IOException {
         // Set title
         String title = spec.getRunSpec().getReportSpec().getTitle();
         if (StringUtils.isEmpty(title)) {
@@ -63,87 +141,161 @@ public class ReportGenerator {
             user = System.getProperty("user.name");
         }
 
-        report.put("title", title);
-        report.put("user", user);
-        report.put("date", new SimpleDateFormat("yyyy/MM/dd HH:mm:ss").format(new Date()));
-        List<Map<String, Object>> sections = getSectionsReport(spec);
+        generator.writeStartObject();
+        generator.writeStringField("title", title);
+        generator.writeStringField("user", user);
+        generator.writeStringField("date", new SimpleDateFormat("yyyy/MM/dd HH:mm:ss").format(new Date()));
+        generator.writeBooleanField("partial", !complete);
+
+        // Sections are copied from the spool as they were written when they finished
+        ReportSpool spool = spec.getReportSpool();
+        if (complete) {
+            spool.appendAll(spec.getScenario().getSteps());
+        }
+        generator.writeArrayFieldStart("sections");
+        generator.flush();
+        spool.copyTo(writer);
+        generator.writeEndArray();
+
+        generator.writeNumberField("totalSteps", spool.getPassedSteps() + spool.getFailedSteps());
+        generator.writeNumberField("passedSteps", spool.getPassedSteps());
+        generator.writeNumberField("failedSteps", spool.getFailedSteps());
+        generator.writeNumberField("totalSections", spool.getTotalSections());
+        generator.writeNumberField("passedSections", spool.getPassedSections());
+        generator.writeNumberField("failedSections", spool.getFailedSections());
+
+        // Step metrics cover every input row or load iteration
+        Metrics metrics = spec.getScenario().getMetrics();
+        if (metrics != null && metrics.getTimeline().getCount() > 0) {
+            generator.writeObjectField("metrics", getMetricsReport(metrics, spec.getScenario().isLoad()));
+        }
+        if (spec.getBaselineDeltas() != null) {
+            generator.writeObjectField("baseline", getBaselineReport(spec));
+        }
+        if (spec.getScenario().getThresholdResults() != null) {
+            generator.writeObjectField("thresholds", getThresholdsReport(spec.getScenario().getThresholdResults()));
+        }
+        List<Map<String, Object>> pools = spec.getConnectionPools() == null ? Collections.emptyList() : spec.getConnectionPools().getStats();
+        if (!pools.isEmpty()) {
+            generator.writeObjectField("pools", pools);
+        }
+        generator.writeEndObject();
+    }
 
-        int totalSteps = 0;
-        int passedSteps = 0;
+    static int writeSection(JsonGenerator generator, String title, List<Step> steps) throws IOException {
+        // Steps are written one by one, the details of a step are only built while it is written
         int failedSteps = 0;
-        int totalSections = sections.size();
-        int passedSections = 0;
-        int failedSections = 0;
-
-        for (Map<String, Object> o : sections) {
-            if (o.get("status").equals(true)) {
-                passedSections++;
-            } else {
-                failedSections++;
+        generator.writeStartObject();
+        generator.writeStringField("title", title);
+        generator.writeArrayFieldStart("steps");
+        for (Step step : steps) {
+            generator.writeStartObject();
+            generator.writeStringField("name", step.getSpec().getName());
+            generator.writeBooleanField("status", step.isPassed());
+            if (!step.isPassed()) {
+                failedSteps++;
             }
-            totalSteps += NumberUtils.toInt(o.get("totalSteps").toString(), 0);
-            passedSteps += NumberUtils.toInt(o.get("passedSteps").toString(), 0);
-            failedSteps += NumberUtils.toInt(o.get("failedSteps").toString(), 0);
-        }
-        report.put("totalSteps", totalSteps);
-        report.put("passedSteps", passedSteps);
-        report.put("failedSteps", failedSteps);
-        report.put("totalSections", totalSections);
-        report.put("passedSections", passedSections);
-        report.put("failedSections", failedSections);
-
-        report.put("sections", sections);
-        return report;
+            generator.writeObjectField("asserts", step.getAssertsResults());
+            generator.writeStringField("details", step.getAdditionalDetails());
+            generator.writeNumberField("time", step.getTime());
+            generator.writeNumberField("start", step.getStartOffset());
+            generator.writeNumberField("end", step.getEndOffset());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("totalSteps", steps.size());
+        generator.writeNumberField("passedSteps", steps.size() - failedSteps);
+        generator.writeNumberField("failedSteps", failedSteps);
+        generator.writeBooleanField("status", failedSteps == 0);
+        generator.writeEndObject();
+        return failedSteps;
     }
 
-    private static List<Map<String, Object>> getSectionsReport(SpecRunner spec) {
-        List<Map<String, Object>> sections = new ArrayList<>();
-        for (Map.Entry<String, List<Step>> e : spec.getScenario().getSteps().entrySet()) {
-            Map<String, Object> section = new HashMap<>();
-            section.put("title", e.getKey());
-            section.put("steps", new ArrayList<>());
-            int totalSteps = e.getValue().size();
-            int passedSteps = 0;
-            int failedSteps = 0;
-            List<Object> steps = new ArrayList<>();
-            for (Step step : e.getValue()) {
-                Map<String, Object> s = new HashMap<>();
-                s.put("name", step.getSpec().getName());
-                s.put("status", step.isPassed());
-                if (step.isPassed()) {
-                    passedSteps++;
-                } else {
-                    failedSteps++;
-                }
-                s.put("asserts", step.getAssertsResults());
-                s.put("details", step.getAdditionalDetails());
-                s.put("time", step.getTime());
-                steps.add(s);
-            }
-            section.put("steps", steps);
-            section.put("totalSteps", totalSteps);
-            section.put("passedSteps", passedSteps);
-            section.put("failedSteps", failedSteps);
-            section.put("status", failedSteps == 0);
-            sections.add(section);
+    private static Map<String, Object> getMetricsReport(Metrics metrics, boolean isLoad) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("load", isLoad);
+        report.put("iterations", metrics.getIterations().get());
+        report.put("elapsed", metrics.getElapsed());
+        report.put("buckets", metrics.getLatency().getBuckets());
+        report.put("timeline", metrics.getTimeline().getPoints());
+        if (metrics.getIterationLatency().getCount() > 0 || metrics.getDropped().get() > 0) {
+            Map<String, Object> schedule = new HashMap<>();
+            schedule.put("dropped", metrics.getDropped().get());
+            schedule.put("late", metrics.getLate().get());
+            schedule.put("latency", metrics.getIterationLatency().getPercentiles());
+            schedule.put("serviceTime", metrics.getIterationServiceTime().getPercentiles());
+            report.put("schedule", schedule);
         }
-        return sections;
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (StepMetrics step : metrics.getSteps().values()) {
+            Map<String, Object> s = new HashMap<>();
+            s.put("id", step.getId());
+            s.put("name", step.getName());
+            s.put("count", step.getCount());
+            s.put("errors", step.getErrorCount());
+            s.put("errorRate", step.getErrorRate());
+            s.put("throughput", step.getThroughput(metrics.getElapsed()));
+            s.put("min", step.getHistogram().getMin());
+            s.put("mean", step.getHistogram().getMean());
+            s.put("max", step.getHistogram().getMax());
+            s.putAll(step.getHistogram().getPercentiles());
+            s.put("serviceTime", step.getServiceTime().getPercentiles());
+            s.put("buckets", step.getHistogram().getBuckets());
+            steps.add(s);
+        }
+        report.put("steps", steps);
+        return report;
     }
 
+    private static Map<String, Object> getBaselineReport(SpecRunner spec) {
+        Map<String, Object> baseline = new HashMap<>();
+        baseline.put("date", spec.getBaseline().getDate());
+        baseline.put("tolerance", spec.getBaselineTolerance());
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (Baseline.Delta delta : spec.getBaselineDeltas()) {
+            Map<String, Object> s = new HashMap<>();
+            s.put("id", delta.getId());
+            s.put("name", delta.getName());
+            s.put("status", delta.getStatus());
+            s.put("count", delta.getCount());
+            s.put("baselineCount", delta.getBaselineCount());
+            s.put("p50", delta.getP50());
+            s.put("baselineP50", delta.getBaselineP50());
+            s.put("p50Change", delta.getP50Change());
+            s.put("p95", delta.getP95());
+            s.put("baselineP95", delta.getBaselineP95());
+            s.put("p95Change", delta.getP95Change());
+            s.put("mean", delta.getMean());
+            s.put("baselineMean", delta.getBaselineMean());
+            s.put("meanChange", delta.getMeanChange());
+            s.put("pValue", delta.getPValue());
+            steps.add(s);
+        }
+        baseline.put("steps", steps);
+        return baseline;
+    }
 
-    private static void saveTestReport(String content, String filePath) {
-        String s = FileReader.readFile("tky-test-report.html");
-        String testdata = s.replace("__TESTDATA__", content);
-        File file = new File(filePath);
-        if (!file.getParentFile().exists()) {
-            file.getParentFile().mkdirs();
+    private static List<Map<String, Object>> getThresholdsReport(List<Thresholds.Result> results) {
+        List<Map<String, Object>> thresholds = new ArrayList<>();
+        for (Thresholds.Result result : results) {
+            Map<String, Object> t = new HashMap<>();
+            t.put("name", result.getName());
+            t.put("expected", result.getExpected());
+            t.put("actual", result.getActual());
+            t.put("count", result.getCount());
+            t.put("passed", result.isPassed());
+            thresholds.add(t);
         }
-        try {
-            FileUtils.writeStringToFile(file, testdata);
-            Log.debug("Report created at = {}", file.getAbsoluteFile());
-        } catch (IOException e) {
-            Log.error("Error while creating report", e.getMessage());
+        return thresholds;
+    }
+
+    private static String formatTimings(HttpTimings timings) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Map.Entry<String, Long> e : timings.getPhases().entrySet()) {
+            joiner.add(e.getKey() + " " + HttpTimings.toMillis(e.getValue()) + " ms");
         }
+        joiner.add("total " + HttpTimings.toMillis(timings.getTotal()) + " ms");
+        return joiner.toString();
     }
 
     public static String generateHTMLForStep(HttpRequestStep step) {
@@ -194,7 +346,13 @@ public class ReportGenerator {
             }
             String body = httpResponse.getPrettyBody();
             response.append("<b>Response body: </b><i>").append("<br>").append(StringEscapeUtils.escapeHtml4(body)).append("</i><br>");
+            if (httpResponse.getBodyFile() != null) {
+                response.append("<b>Response body file: </b><i>").append(StringEscapeUtils.escapeHtml4(httpResponse.getBodyFile())).append("</i><br>");
+            }
             response.append("<b>Response time: </b><i>").append(httpResponse.getTime()).append(" ms</i><br>");
+            if (httpResponse.getTimings() != null) {
+                response.append("<b>Response timings: </b><i>").append(formatTimings(httpResponse.getTimings())).append("</i><br>");
+            }
         } else if (step.getHttpRequestException() != null) {
             response.append("<b>Exception: </b><i>").append("").append(StringEscapeUtils.escapeHtml4(step.getHttpRequestException().getLocalizedMessage())).append("</i><br>");
         }
@@ -0,0 +1,131 @@
+package io.github.imhmg.tokyo.commons;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.imhmg.tokyo.SpecRunner;
+import io.github.imhmg.tokyo.core.Step;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report data of the sections a scenario finished, kept in a temp file. A section is written
+ * once when its steps finished, reports copy the spooled sections instead of building every
+ * step again.
+ */
+public class ReportSpool implements Closeable {
+
+    private final SpecRunner spec;
+    @Getter
+    private final String path;
+    private final Path file;
+    private final Writer writer;
+    private final Set<String> sections = new HashSet<>();
+    @Getter
+    private int passedSteps = 0;
+    @Getter
+    private int failedSteps = 0;
+    @Getter
+    private int passedSections = 0;
+    @Getter
+    private int failedSections = 0;
+    private ScheduledExecutorService refresher;
+
+    public ReportSpool(SpecRunner spec) {
+        this.spec = spec;
+        this.path = ReportGenerator.getReportPath(spec);
+        try {
+            this.file = Files.createTempFile("tky-report-", ".json");
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create report spool file", e);
+        }
+    }
+
+    public synchronized void append(String title, List<Step> steps) {
+        if (!sections.add(title)) {
+            Log.debug("Section already reported {}", title);
+            return;
+        }
+        try {
+            if (sections.size() > 1) {
+                writer.write(',');
+            }
+            int failed;
+            try (JsonGenerator generator = JsonParser.createGenerator(writer)) {
+                failed = ReportGenerator.writeSection(generator, title, steps);
+            }
+            passedSteps += steps.size() - failed;
+            failedSteps += failed;
+            if (failed == 0) {
+                passedSections++;
+            } else {
+                failedSections++;
+            }
+        } catch (IOException e) {
+            Log.error("Unable to write section {} to report spool : {}", title, e.getMessage());
+        }
+    }
+
+    public void appendAll(Map<String, List<Step>> steps) {
+        // Sections that never reported completion, for example when a run was aborted
+        Map<String, List<Step>> snapshot = new LinkedHashMap<>();
+        synchronized (steps) {
+            for (Map.Entry<String, List<Step>> e : steps.entrySet()) {
+                snapshot.put(e.getKey(), new ArrayList<>(e.getValue()));
+            }
+        }
+        for (Map.Entry<String, List<Step>> e : snapshot.entrySet()) {
+            if (!sections.contains(e.getKey())) {
+                append(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    public synchronized void copyTo(Writer out) throws IOException {
+        writer.flush();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.transferTo(out);
+        }
+    }
+
+    public synchronized int getTotalSections() {
+        return sections.size();
+    }
+
+    public void startRefresh(int seconds) {
+        // Partial reports show the sections finished so far, the final report replaces them
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tky-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> ReportGenerator.refreshReport(spec), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public void stopRefresh() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        stopRefresh();
+        try {
+            writer.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Log.error("Unable to delete report spool file : {}", e.getMessage());
+        }
+    }
+}
@@ -4,79 +4,81 @@ import io.github.imhmg.tokyo.core.TokyoFaker;
 
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class VariableParser {
 
+    private static final int MAX_ROUNDS = 5;
+    private static final int MAX_TEMPLATES = 4096;
+    private static final Map<String, Template> templates = new ConcurrentHashMap<>();
+
     @FunctionalInterface
     public static interface ValueProvider {
         public String getValue(String key);
     }
 
     public static String replaceVariables(String content, ValueProvider provider) {
-        return replaceVariables(content, provider, 5);
+        return replaceVariables(content, provider, new HashMap<>());
     }
 
-    private static String replaceVariables(String content, ValueProvider provider, int round) {
-        if (round <= 0) {
-            Log.debug("Populate recursive round limit exceed");
-            return content;
-        }
-        List<String> variables = parseVariables(content);
-        if (variables.size() == 0) {
-            Log.debug("No variables found to populate");
+    public static String replaceVariables(String content, ValueProvider provider, Map<String, String> resolved) {
+        // Resolved values are shared between calls, so a fake value is generated once for a set of contents
+        return replaceVariables(content, provider, resolved, MAX_ROUNDS);
+    }
+
+    private static String replaceVariables(String content, ValueProvider provider, Map<String, String> resolved, int round) {
+        if (content == null || !content.contains("${")) {
             return content;
         }
-        for (String key : variables) {
-            String value = TokyoFaker.get(key);
-            if (value == null) {
-                value = getPrompt(key);
-            }
-            if (value == null) {
-                value = provider.getValue(key);
-            }
-            if (value != null) {
-                content = content.replace("${" + key + "}", value);
-            } else {
-                Log.debug("Cannot find variable value for : {}", key);
-            }
-        }
-        round--;
-        return replaceVariables(content, provider, round);
+        return compile(content).render(provider, resolved, round);
     }
 
-    private static List<String> parseVariables(String text) {
+    public static List<String> parseVariables(String text) {
         List<String> variables = new ArrayList<>();
-        int length = text.length();
-        StringBuilder currentVariable = new StringBuilder();
-        boolean insideVariable = false;
-        int braceCount = 0;
-        for (int i = 0; i < length; i++) {
-            char currentChar = text.charAt(i);
-
-            if (currentChar == '$' && i + 1 < length && text.charAt(i + 1) == '{') {
-                insideVariable = true;
-                braceCount = 1;
-                i++;
-                currentVariable.setLength(0);
-            } else if (insideVariable) {
-                if (currentChar == '{') {
-                    braceCount++;
-                } else if (currentChar == '}') {
-                    braceCount--;
-                    if (braceCount == 0) {
-                        variables.add(currentVariable.toString().trim());
-                        insideVariable = false;
-                    }
-                }
-                if (braceCount > 0) {
-                    currentVariable.append(currentChar);
-                }
+        for (Segment segment : compile(text).segments) {
+            if (segment.kind != Kind.TEXT) {
+                variables.add(segment.value);
             }
         }
         return variables;
     }
 
+    private static Template compile(String text) {
+        Template template = templates.get(text);
+        if (template != null) {
+            return template;
+        }
+        // Contents are mostly spec files and input values, the cache is dropped when it grows past the limit
+        if (templates.size() >= MAX_TEMPLATES) {
+            templates.clear();
+        }
+        template = new Template(text);
+        templates.put(text, template);
+        return template;
+    }
+
+    private static String resolve(Segment segment, ValueProvider provider, Map<String, String> resolved) {
+        String value = resolved.get(segment.value);
+        if (value != null) {
+            return value;
+        }
+        if (segment.kind == Kind.FAKER) {
+            value = TokyoFaker.get(segment.value);
+        } else if (segment.kind == Kind.PROMPT) {
+            value = getPrompt(segment.value);
+        }
+        if (value == null) {
+            value = provider.getValue(segment.value);
+        }
+        if (value != null) {
+            resolved.put(segment.value, value);
+        }
+        return value;
+    }
+
     private static String getPrompt(String key) {
         if (key == null) {
             return null;
@@ -89,4 +91,101 @@ public class VariableParser {
         return name;
     }
 
+    private enum Kind {
+        TEXT, FAKER, PROMPT, VAR
+    }
+
+    private static class Segment {
+        private final Kind kind;
+        // Text of a text segment or the trimmed key of a variable
+        private final String value;
+        // Original text of a variable, kept when the variable cannot be resolved
+        private final String raw;
+
+        private Segment(Kind kind, String value, String raw) {
+            this.kind = kind;
+            this.value = value;
+            this.raw = raw;
+        }
+    }
+
+    private static class Template {
+        private final String source;
+        private final List<Segment> segments = new ArrayList<>();
+        private boolean partial = false;
+
+        private Template(String text) {
+            // A variable opened inside another one restarts the scan, inner variables are resolved first
+            this.source = text;
+            int length = text.length();
+            int textStart = 0;
+            int variableStart = -1;
+            int braceCount = 0;
+            for (int i = 0; i < length; i++) {
+                char currentChar = text.charAt(i);
+                if (currentChar == '$' && i + 1 < length && text.charAt(i + 1) == '{') {
+                    variableStart = i;
+                    braceCount = 1;
+                    i++;
+                } else if (variableStart >= 0) {
+                    if (currentChar == '{') {
+                        braceCount++;
+                    } else if (currentChar == '}' && --braceCount == 0) {
+                        addText(text, textStart, variableStart);
+                        String key = text.substring(variableStart + 2, i).trim();
+                        segments.add(new Segment(kindOf(key), key, text.substring(variableStart, i + 1)));
+                        textStart = i + 1;
+                        variableStart = -1;
+                    }
+                }
+            }
+            addText(text, textStart, length);
+        }
+
+        private void addText(String text, int start, int end) {
+            if (start >= end) {
+                return;
+            }
+            String value = text.substring(start, end);
+            // Text around an inner variable still has an open variable, it is scanned again after rendering
+            partial |= value.contains("${");
+            segments.add(new Segment(Kind.TEXT, value, null));
+        }
+
+        private static Kind kindOf(String key) {
+            if (key.startsWith("faker ")) {
+                return Kind.FAKER;
+            }
+            if (key.startsWith("prompt ")) {
+                return Kind.PROMPT;
+            }
+            return Kind.VAR;
+        }
+
+        private String render(ValueProvider provider, Map<String, String> resolved, int round) {
+            if (round <= 0) {
+                Log.debug("Populate recursive round limit exceed");
+                return source;
+            }
+            StringBuilder content = new StringBuilder(source.length() + 16);
+            for (Segment segment : segments) {
+                if (segment.kind == Kind.TEXT) {
+                    content.append(segment.value);
+                    continue;
+                }
+                String value = resolve(segment, provider, resolved);
+                if (value == null) {
+                    Log.debug("Cannot find variable value for : {}", segment.value);
+                    content.append(segment.raw);
+                } else {
+                    // Values can contain variables, they are resolved up to the round limit
+                    content.append(replaceVariables(value, provider, resolved, round - 1));
+                }
+            }
+            if (partial) {
+                return replaceVariables(content.toString(), provider, resolved, round - 1);
+            }
+            return content.toString();
+        }
+    }
 }
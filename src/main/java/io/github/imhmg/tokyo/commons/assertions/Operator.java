@@ -7,7 +7,12 @@ public enum Operator {
     EQ("[==]", "equals to"),
     NOT_EQ("[!=]", "not equals to"),
     CONTAINS("[<>]", "contains"),
-    NOT_CONTAINS("[<!>]", "not contains");
+    NOT_CONTAINS("[<!>]", "not contains"),
+    LT("[<]", "less than"),
+    LTE("[<=]", "less than or equals to"),
+    GT("[>]", "greater than"),
+    GTE("[>=]", "greater than or equals to"),
+    RANGE("[<...>]", "between");
 
     private final String description;
     private final String syntax;
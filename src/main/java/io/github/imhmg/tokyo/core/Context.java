@@ -1,35 +1,100 @@
 package io.github.imhmg.tokyo.core;
 
+import io.github.imhmg.tokyo.core.http.BodyRetention;
+import io.github.imhmg.tokyo.core.http.ConnectionPools;
 import io.github.imhmg.tokyo.core.spec.DataSpec;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Getter
 @Setter
 public class Context {
-    private Map<String, Object> vars = new HashMap<>();
-    private List<Step> steps = new ArrayList<>();
+    private Map<String, Object> vars = Collections.synchronizedMap(new HashMap<>());
+    @Setter(AccessLevel.NONE)
+    private List<Step> steps = Collections.synchronizedList(new ArrayList<>());
     private Map<String, Object> configs = new HashMap<>();
     private DataSpec inputs = new DataSpec();
+    private BodyRetention bodyRetention;
+    private ConnectionPools connectionPools;
+    // Steps by id and the merge of configs and inputs, both kept so variable lookups do not scan
+    @Getter(AccessLevel.NONE)
+    private final Map<String, List<Step>> stepIndex = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Map<String, Object> values;
+
     public Map<String, Object> getInputData() {
         return inputs.getData();
     }
 
+    public void setConfigs(Map<String, Object> configs) {
+        this.configs = configs;
+        this.values = null;
+    }
+
+    public void setInputs(DataSpec inputs) {
+        this.inputs = inputs;
+        this.values = null;
+    }
+
+    public void addStep(Step step) {
+        synchronized (steps) {
+            steps.add(step);
+            stepIndex.computeIfAbsent(step.getSpec().getId(), id -> new ArrayList<>()).add(step);
+        }
+    }
+
+    public VariableScope getScope(Map<String, String> stepConfigs) {
+        // Precedence is context vars, step configs, inputs and scenario configs
+        Map<String, Object> values = this.values;
+        if (values == null) {
+            values = VariableScope.merge(this.configs, getInputData());
+            this.values = values;
+        }
+        if (stepConfigs != null && !stepConfigs.isEmpty()) {
+            values = VariableScope.merge(values, stepConfigs);
+        }
+        return new VariableScope(this.vars, values);
+    }
+
+    public Context fork(DataSpec inputs) {
+        // Configs are shared read only, vars and steps are copied so pre step captures stay visible
+        Context context = new Context();
+        context.setConfigs(this.configs);
+        context.setBodyRetention(this.bodyRetention);
+        context.setConnectionPools(this.connectionPools);
+        synchronized (this.vars) {
+            context.getVars().putAll(this.vars);
+        }
+        synchronized (this.steps) {
+            for (Step step : this.steps) {
+                context.addStep(step);
+            }
+        }
+        context.setInputs(inputs);
+        return context;
+    }
+
     public String getStepVariable(String key) {
         if(!key.startsWith("step.")) {
             return null;
         }
-        key = key.replaceFirst("step.", "");
-        String[] split = key.split("\\.");
+        key = key.substring("step.".length());
+        int index = key.indexOf('.');
+        String id = index < 0 ? key : key.substring(0, index);
 
-        for (Step step : steps) {
-            if(step.isExecutionSuccess() && step.getSpec().getId().equals(split[0])) {
-                return step.getStepVariables(key);
+        synchronized (steps) {
+            List<Step> idSteps = stepIndex.get(id);
+            if (idSteps == null) {
+                return null;
+            }
+            for (Step step : idSteps) {
+                if(step.isExecutionSuccess()) {
+                    return step.getStepVariables(key);
+                }
             }
         }
         return null;
@@ -0,0 +1,130 @@
+package io.github.imhmg.tokyo.core;
+
+import com.opencsv.CSVReader;
+import io.github.imhmg.tokyo.commons.FileReader;
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.commons.VariableParser;
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * CSV inputs read row by row. Rows are parsed, validated and their variables resolved only
+ * when they are taken from the iterator, every iterator reads the file from the beginning.
+ */
+public class CsvInputSource implements Iterable<DataSpec> {
+
+    private static final String NAME_COLUMN = "#Name#";
+
+    private final String file;
+    private final VariableParser.ValueProvider provider;
+
+    public CsvInputSource(String file, VariableParser.ValueProvider provider) {
+        this.file = file;
+        this.provider = provider;
+        validate();
+    }
+
+    @Override
+    public RowIterator iterator() {
+        return new RowIterator();
+    }
+
+    private void validate() {
+        // Header and first row are parsed upfront so invalid files fail before running any step, later rows fail when they are read
+        try (RowIterator rows = iterator()) {
+            if (!rows.hasNext()) {
+                throw new RuntimeException("Input files must have rows");
+            }
+            rows.next();
+        }
+    }
+
+    public class RowIterator implements Iterator<DataSpec>, Closeable {
+        private final CSVReader reader;
+        private final String[] header;
+        private final Set<String> names = new HashSet<>();
+        private String[] next;
+        private int row = 0;
+        private boolean closed = false;
+
+        private RowIterator() {
+            try {
+                this.reader = new CSVReader(FileReader.openFile(file));
+                this.header = reader.readNext();
+            } catch (Exception e) {
+                throw new RuntimeException("Error while parsing input file", e);
+            }
+            if (header == null || header.length == 0) {
+                close();
+                throw new RuntimeException("Input files invalid header, header should be in #Name#,col1,col2,col3....");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                next = reader.readNext();
+            } catch (Exception e) {
+                close();
+                throw new RuntimeException("Error while parsing input file", e);
+            }
+            if (next == null) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public DataSpec next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] line = next;
+            next = null;
+            row++;
+            if (line.length != header.length) {
+                throw new RuntimeException("Input files invalid row (column count doesnt match) " + row);
+            }
+            DataSpec dataSpec = new DataSpec();
+            Map<String, Object> data = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                if (Objects.equals(header[i], NAME_COLUMN)) {
+                    dataSpec.setName(line[i]);
+                    continue;
+                }
+                data.put(header[i], VariableParser.replaceVariables(line[i], provider));
+            }
+            if (dataSpec.getName() == null) {
+                dataSpec.setName("Case " + row);
+            }
+            if (!names.add(dataSpec.getName())) {
+                throw new IllegalArgumentException("Input name cannot be duplicate. Duplicate input name " + dataSpec.getName());
+            }
+            dataSpec.setData(data);
+            return dataSpec;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                Log.error("Unable to close input file {}", file);
+            }
+        }
+    }
+}
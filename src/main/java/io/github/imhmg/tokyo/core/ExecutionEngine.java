@@ -0,0 +1,93 @@
+package io.github.imhmg.tokyo.core;
+
+import io.github.imhmg.tokyo.commons.Log;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Getter
+public class ExecutionEngine {
+
+    private static final Method VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int concurrency;
+    private final boolean virtual;
+
+    public ExecutionEngine(int concurrency, boolean preferVirtual) {
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        ExecutorService virtualExecutor = preferVirtual ? newVirtualExecutor() : null;
+        if (virtualExecutor != null) {
+            Log.debug("Using virtual thread executor, concurrency = {}", concurrency);
+            this.executor = virtualExecutor;
+            this.virtual = true;
+        } else {
+            Log.debug("Using platform thread executor, concurrency = {}", concurrency);
+            this.executor = Executors.newFixedThreadPool(concurrency, new PlatformThreadFactory());
+            this.virtual = false;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Virtual threads are unbounded, so the concurrency level is enforced with permits
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        if (VIRTUAL_EXECUTOR == null) {
+            Log.debug("Virtual threads not supported by this JVM");
+            return null;
+        }
+        try {
+            return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            Log.error("Unable to create virtual thread executor : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Method findVirtualExecutor() {
+        // Looked up reflectively so the library still runs on JDK 11 - 20
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+        private static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "tky-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
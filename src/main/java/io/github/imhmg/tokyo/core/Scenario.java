@@ -2,17 +2,31 @@ package io.github.imhmg.tokyo.core;
 
 import io.github.imhmg.tokyo.commons.Console;
 import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.load.ArrivalRateRunner;
+import io.github.imhmg.tokyo.core.load.ClosedModelRunner;
+import io.github.imhmg.tokyo.core.load.DataFeeder;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.metrics.StepMetrics;
+import io.github.imhmg.tokyo.core.metrics.Thresholds;
 import io.github.imhmg.tokyo.core.spec.DataSpec;
 import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
 import io.github.imhmg.tokyo.core.spec.StepSpec;
 import io.github.imhmg.tokyo.core.http.HttpRequestStep;
 import lombok.Getter;
 import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicContainer;
 import org.junit.jupiter.api.DynamicTest;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import static com.diogonunes.jcolor.Ansi.*;
 import static com.diogonunes.jcolor.Attribute.*;
 
@@ -20,15 +34,33 @@ import static com.diogonunes.jcolor.Attribute.*;
 @Setter
 public class Scenario {
 
+    private static final String LOAD_SECTION = "Load Test";
+    private static final String THRESHOLDS_SECTION = "Thresholds";
+
     private Context context = new Context();
-    private Map<String, List<Step>> steps = new LinkedHashMap<>();
-    private List<DataSpec> inputs = new ArrayList<>();
+    private Map<String, List<Step>> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+    private Iterable<DataSpec> inputs = new ArrayList<>();
     private ScenarioSpec spec;
+    private ExecutionEngine engine;
+    private ExecutionEngine stepEngine;
+    private StepGraph graph;
+    private Metrics metrics;
+    private Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    private List<Thresholds.Result> thresholdResults;
+    // Called with the steps of a section once all of them finished
+    private BiConsumer<String, List<Step>> sectionListener;
 
-    public void initialize(ScenarioSpec spec, List<DataSpec> inputs) {
+    public void initialize(ScenarioSpec spec, Iterable<DataSpec> inputs) {
         this.inputs = inputs;
         this.spec = spec;
         context.setConfigs(spec.getConfigs());
+        if (!isLoad()) {
+            // Rows are recorded in metrics as well, load runs create their own
+            this.metrics = new Metrics(spec.getSteps());
+        }
+        if (isConcurrentSteps()) {
+            this.graph = new StepGraph(spec.getSteps());
+        }
     }
 
 
@@ -36,67 +68,562 @@ public class Scenario {
         Stream<DynamicContainer> preSteps = Stream.empty();
         Stream<DynamicContainer> postSteps = Stream.empty();
         Stream<DynamicContainer> scenarioSteps = Stream.empty();
+        Stream<DynamicContainer> thresholds = Stream.empty();
 
         if(this.spec.getPreSteps() != null && !this.spec.getPreSteps().isEmpty()) {
             Log.debug("Adding pre steps");
              preSteps = Stream.of("1").map(i -> {
-                 return DynamicContainer.dynamicContainer("Pre Steps", runSteps(this.spec.getPreSteps(), "Pre Steps"));
+                 return DynamicContainer.dynamicContainer("Pre Steps", runSteps(this.spec.getPreSteps(), "Pre Steps").onClose(() -> sectionCompleted("Pre Steps")));
              });
         }
 
-        scenarioSteps = this.inputs.stream().map(i -> {
-            context.setInputs(i);
-            String name = i.getName() == null ? "" : " : " + i.getName();
-            return DynamicContainer.dynamicContainer("Scenario" + name, runSteps(this.spec.getSteps(), "Scenario" + name));
-        });
+        if (isLoad()) {
+            Log.debug("Running scenario as load test");
+            scenarioSteps = Stream.of("1").map(i -> {
+                return DynamicContainer.dynamicContainer(LOAD_SECTION, Stream.of(DynamicTest.dynamicTest("Load : " + this.spec.getName(), this::runLoad)));
+            });
+        } else if (isParallel()) {
+            Log.debug("Running inputs in parallel = {}", this.spec.getParallel());
+            scenarioSteps = Stream.of("1").flatMap(i -> {
+                startMetrics();
+                return runInputsInParallel();
+            });
+        } else if (isConcurrentSteps()) {
+            scenarioSteps = inputStream().map(i -> {
+                startMetrics();
+                context.setInputs(i);
+                String name = getSectionName(i);
+                this.steps.put(name, new ArrayList<>());
+                CompletableFuture<List<Step>> row;
+                try {
+                    row = CompletableFuture.completedFuture(runRow(this.spec.getSteps(), name, this.context));
+                } catch (RuntimeException e) {
+                    row = CompletableFuture.failedFuture(e);
+                }
+                return DynamicContainer.dynamicContainer(name, awaitSteps(this.spec.getSteps(), row).onClose(() -> sectionCompleted(name)));
+            });
+        } else {
+            scenarioSteps = inputStream().map(i -> {
+                startMetrics();
+                context.setInputs(i);
+                String name = getSectionName(i);
+                return DynamicContainer.dynamicContainer(name, runSteps(this.spec.getSteps(), name).onClose(() -> sectionCompleted(name)));
+            });
+        }
 
         if(this.spec.getPostSteps() != null && !this.spec.getPostSteps().isEmpty()) {
             Log.debug("Adding post steps");
             postSteps = Stream.of("1").map(i -> {
-                return DynamicContainer.dynamicContainer("Post Steps", runSteps(this.spec.getPostSteps(), "Post Steps"));
+                stopMetrics();
+                return DynamicContainer.dynamicContainer("Post Steps", runSteps(this.spec.getPostSteps(), "Post Steps").onClose(() -> sectionCompleted("Post Steps")));
+            });
+        }
+
+        if (hasThresholds()) {
+            thresholds = Stream.of("1").map(i -> {
+                return DynamicContainer.dynamicContainer(THRESHOLDS_SECTION, thresholdTests(evaluateThresholds()));
+            });
+        }
+        return Stream.concat(Stream.concat(Stream.concat(preSteps, scenarioSteps), postSteps), thresholds).onClose(this::shutdown);
+    }
+
+    public void shutdown() {
+        stopMetrics();
+        if (this.engine != null) {
+            this.engine.shutdown();
+        }
+        if (this.stepEngine != null) {
+            this.stepEngine.shutdown();
+        }
+        Console.flush();
+    }
+
+    public boolean isParallel() {
+        return this.spec.getParallel() != null && this.spec.getParallel() > 1;
+    }
+
+    public boolean isConcurrentSteps() {
+        return this.spec.getConcurrentSteps() != null && this.spec.getConcurrentSteps() > 1;
+    }
+
+    public boolean isLoad() {
+        return this.spec.getLoad() != null;
+    }
+
+    public boolean hasThresholds() {
+        return this.spec.getThresholds() != null && !this.spec.getThresholds().isEmpty();
+    }
+
+    private String getSectionName(DataSpec input) {
+        String name = input.getName() == null ? "" : " : " + input.getName();
+        return "Scenario" + name;
+    }
+
+    private Stream<DataSpec> inputStream() {
+        // Inputs may be streamed from a file, rows are only read when the stream reaches them
+        return StreamSupport.stream(this.inputs.spliterator(), false);
+    }
+
+    private Stream<DynamicContainer> runInputsInParallel() {
+        Iterator<ScheduledRow> rows = startInputsInParallel();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false).map(row -> {
+            return DynamicContainer.dynamicContainer(row.name, awaitSteps(this.spec.getSteps(), row.result).onClose(() -> sectionCompleted(row.name)));
+        });
+    }
+
+    private Iterator<ScheduledRow> startInputsInParallel() {
+        // Rows are scheduled in a window ahead of the consumer, so only a bounded number of rows are read and in flight
+        int window = this.spec.getParallel() * 2;
+        Iterator<DataSpec> source = this.inputs.iterator();
+        Deque<ScheduledRow> scheduled = new ArrayDeque<>();
+        return new Iterator<ScheduledRow>() {
+            @Override
+            public boolean hasNext() {
+                schedule();
+                return !scheduled.isEmpty();
+            }
+
+            @Override
+            public ScheduledRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return scheduled.poll();
+            }
+
+            private void schedule() {
+                while (scheduled.size() < window && source.hasNext()) {
+                    DataSpec input = source.next();
+                    String name = getSectionName(input);
+                    // Each input row runs on its own context forked from the scenario context after pre steps finished
+                    Context rowContext = context.fork(input);
+                    steps.put(name, new ArrayList<>());
+                    scheduled.add(new ScheduledRow(name, engine.submit(() -> runRow(spec.getSteps(), name, rowContext))));
+                }
+            }
+        };
+    }
+
+    private static class ScheduledRow {
+        private final String name;
+        private final CompletableFuture<List<Step>> result;
+
+        private ScheduledRow(String name, CompletableFuture<List<Step>> result) {
+            this.name = name;
+            this.result = result;
+        }
+    }
+
+    public void execute() {
+        // Runs the whole scenario on the calling thread, results are kept in steps and failures
+        if(this.spec.getPreSteps() != null && !this.spec.getPreSteps().isEmpty()) {
+            executeSection(this.spec.getPreSteps(), "Pre Steps", this.context);
+        }
+        startMetrics();
+        if (isLoad()) {
+            try {
+                runLoad();
+            } catch (RuntimeException e) {
+                failures.put(LOAD_SECTION, e);
+            }
+        } else if (isParallel()) {
+            Iterator<ScheduledRow> rows = startInputsInParallel();
+            while (rows.hasNext()) {
+                ScheduledRow row = rows.next();
+                try {
+                    row.result.join();
+                } catch (CompletionException e) {
+                    failures.put(row.name, e.getCause());
+                }
+                sectionCompleted(row.name);
+            }
+        } else {
+            for (DataSpec input : this.inputs) {
+                context.setInputs(input);
+                executeSection(this.spec.getSteps(), getSectionName(input), this.context);
+            }
+        }
+        stopMetrics();
+        if(this.spec.getPostSteps() != null && !this.spec.getPostSteps().isEmpty()) {
+            executeSection(this.spec.getPostSteps(), "Post Steps", this.context);
+        }
+        if (hasThresholds()) {
+            evaluateThresholds();
+        }
+        shutdown();
+    }
+
+    private void executeSection(List<StepSpec> stepSpecs, String key, Context context) {
+        this.steps.put(key, new ArrayList<>());
+        try {
+            runRow(stepSpecs, key, context);
+        } catch (RuntimeException e) {
+            failures.put(key, e);
+        }
+        sectionCompleted(key);
+    }
+
+    private void sectionCompleted(String key) {
+        if (this.sectionListener == null) {
+            return;
+        }
+        List<Step> sectionSteps;
+        synchronized (this.steps) {
+            sectionSteps = new ArrayList<>(this.steps.getOrDefault(key, Collections.emptyList()));
+        }
+        try {
+            this.sectionListener.accept(key, sectionSteps);
+            // Steps are in the report, their response data is not kept for the rest of the run
+            sectionSteps.forEach(Step::release);
+        } catch (RuntimeException e) {
+            Log.error("Error while completing section {} : {}", key, e.getMessage());
+        }
+    }
+
+    public boolean isPassed() {
+        if (!failures.isEmpty()) {
+            return false;
+        }
+        if (this.thresholdResults != null && this.thresholdResults.stream().anyMatch(r -> !r.isPassed())) {
+            return false;
+        }
+        synchronized (this.steps) {
+            for (List<Step> sectionSteps : this.steps.values()) {
+                for (Step step : sectionSteps) {
+                    if (step.getFailure() != null || !step.isPassed()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public Stream<DynamicContainer> replay() {
+        // Reports an executed scenario to JUnit in the same shape as run()
+        List<String> sections;
+        synchronized (this.steps) {
+            sections = new ArrayList<>(this.steps.keySet());
+        }
+        if (isLoad()) {
+            sections.add(sections.contains("Pre Steps") ? 1 : 0, LOAD_SECTION);
+        }
+        Stream<DynamicContainer> containers = sections.stream().map(section -> {
+            List<Step> sectionSteps = this.steps.getOrDefault(section, Collections.emptyList());
+            Stream<DynamicTest> tests = sectionSteps.stream().map(step -> {
+                return DynamicTest.dynamicTest("Step : " + step.getSpec().getName(), () -> {
+                    if (step.getFailure() != null) {
+                        throw step.getFailure();
+                    }
+                });
+            });
+            if (section.equals(LOAD_SECTION) || failures.containsKey(section)) {
+                String name = section.equals(LOAD_SECTION) ? "Load : " + this.spec.getName() : "Initialize : " + section;
+                tests = Stream.concat(tests, Stream.of(DynamicTest.dynamicTest(name, () -> {
+                    if (failures.containsKey(section)) {
+                        throw failures.get(section);
+                    }
+                })));
+            }
+            return DynamicContainer.dynamicContainer(section, tests);
+        });
+        if (this.thresholdResults != null) {
+            containers = Stream.concat(containers, Stream.of(DynamicContainer.dynamicContainer(THRESHOLDS_SECTION, thresholdTests(this.thresholdResults))));
+        }
+        return containers;
+    }
+
+    public synchronized List<Thresholds.Result> evaluateThresholds() {
+        // Thresholds are checked once, after every row and iteration finished
+        if (this.thresholdResults == null) {
+            stopMetrics();
+            Metrics evaluated = this.metrics != null ? this.metrics : new Metrics(this.spec.getSteps());
+            this.thresholdResults = Thresholds.evaluate(this.spec.getThresholds(), evaluated);
+            printThresholds(this.thresholdResults);
+        }
+        return this.thresholdResults;
+    }
+
+    private Stream<DynamicTest> thresholdTests(List<Thresholds.Result> results) {
+        return results.stream().map(result -> {
+            return DynamicTest.dynamicTest("Threshold : " + result.getName(), () -> {
+                if (!result.isPassed()) {
+                    Assertions.fail("Threshold breached, " + result.getMessage());
+                }
             });
+        });
+    }
+
+    private void startMetrics() {
+        if (this.metrics != null && !isLoad()) {
+            this.metrics.start();
+        }
+    }
+
+    private void stopMetrics() {
+        if (this.metrics != null && !isLoad()) {
+            this.metrics.stop();
         }
-        return Stream.concat(Stream.concat(preSteps, scenarioSteps), postSteps);
     }
 
+    private void recordMetrics(Step step) {
+        // Metrics only know scenario steps, pre and post steps are ignored
+        if (this.metrics != null && !isLoad()) {
+            this.metrics.record(step);
+        }
+    }
+
+    private void runLoad() {
+        try (DataFeeder feeder = new DataFeeder(this.inputs)) {
+            if (this.spec.getLoad().isArrivalRate()) {
+                this.metrics = new ArrivalRateRunner(this, feeder).run();
+            } else {
+                this.metrics = new ClosedModelRunner(this, feeder).run();
+            }
+        } finally {
+            this.engine.shutdown();
+        }
+        printMetrics(this.metrics);
+    }
+
+    public void runIteration(DataSpec input, Metrics metrics) {
+        runIteration(input, metrics, 0);
+    }
+
+    public void runIteration(DataSpec input, Metrics metrics, long delay) {
+        // Iteration steps are only recorded in metrics, keeping long load runs at a fixed memory
+        Context iterationContext = this.context.fork(input);
+        long iterationStart = System.nanoTime();
+        for (StepSpec spec : this.spec.getSteps()) {
+            Step step;
+            try {
+                step = createStep(spec, iterationContext);
+            } catch (RuntimeException e) {
+                Log.error("Unable to initialize step {} : {}", spec.getName(), e.getMessage());
+                metrics.recordFailure(spec);
+                continue;
+            }
+            iterationContext.addStep(step);
+            runStep(step, iterationStart);
+            metrics.record(step, delay);
+        }
+        metrics.iterationCompleted();
+    }
+
+    private List<Step> runRow(List<StepSpec> stepSpecs, String key, Context rowContext) {
+        long rowStart = System.nanoTime();
+        if (isConcurrentSteps() && stepSpecs == this.spec.getSteps()) {
+            return runGraph(stepSpecs, key, rowContext, rowStart);
+        }
+        List<Step> rowSteps = new ArrayList<>();
+        for (StepSpec spec : stepSpecs) {
+            Step step = createStep(spec, rowContext);
+            this.steps.get(key).add(step);
+            rowContext.addStep(step);
+            rowSteps.add(step);
+            runStep(step, rowStart);
+            recordMetrics(step);
+        }
+        return rowSteps;
+    }
+
+    private List<Step> runGraph(List<StepSpec> stepSpecs, String key, Context rowContext, long rowStart) {
+        // Steps start as soon as the steps they depend on finished, failed steps do not block dependents.
+        // Futures are created in graph order, so the futures of the dependencies always exist
+        Map<String, StepSpec> specs = new HashMap<>();
+        for (StepSpec spec : stepSpecs) {
+            specs.put(spec.getId(), spec);
+        }
+        Map<String, CompletableFuture<Step>> futures = new HashMap<>();
+        for (String id : this.graph.getOrder()) {
+            StepSpec spec = specs.get(id);
+            CompletableFuture<?>[] dependencies = this.graph.getDependencies(spec.getId()).stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(spec.getId(), CompletableFuture.allOf(dependencies).thenCompose(v -> this.stepEngine.submit(() -> {
+                Step step = createStep(spec, rowContext);
+                rowContext.addStep(step);
+                runStep(step, rowStart);
+                recordMetrics(step);
+                return step;
+            })));
+        }
+        List<Step> rowSteps = new ArrayList<>();
+        RuntimeException failure = null;
+        for (StepSpec spec : stepSpecs) {
+            try {
+                rowSteps.add(futures.get(spec.getId()).join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        this.steps.get(key).addAll(rowSteps);
+        if (failure != null) {
+            throw failure;
+        }
+        return rowSteps;
+    }
+
+    private void runStep(Step step, long rowStart) {
+        try {
+            executeTimed(step, rowStart);
+        } catch (Throwable e) {
+            Log.debug("Step failed {}", step.getSpec().getName());
+            step.setFailure(e);
+        }
+    }
+
+    private void executeTimed(Step step, long rowStart) {
+        step.setStartOffset((System.nanoTime() - rowStart) / 1_000_000);
+        Console.beginStep();
+        boolean passed = false;
+        try {
+            executeStep(step);
+            passed = step.isPassed();
+        } finally {
+            // Defines become row variables when the step finished, steps running alongside never see them
+            step.publishDefines();
+            step.setEndOffset((System.nanoTime() - rowStart) / 1_000_000);
+            Console.endStep(!passed);
+            printSummary(step, passed);
+        }
+    }
+
+    private void printSummary(Step step, boolean passed) {
+        if (Console.getLevel() != Console.Level.SUMMARY) {
+            return;
+        }
+        String inputName = step.getContext().getInputs().getName() != null ? " [" + step.getContext().getInputs().getName() + "]" : "";
+        Console.summary(
+                passed ? colorize(" PASS ", BACK_COLOR(25, 217, 156), BLACK_TEXT(), BOLD()) : colorize(" FAIL ", BACK_COLOR(243, 80, 127), BLACK_TEXT(), BOLD()),
+                inputName, " ", step.getSpec().getName(),
+                colorize(" [" + (step.getEndOffset() - step.getStartOffset()) + " ms]", TEXT_COLOR(152))
+        );
+    }
+
+    private void printMetrics(Metrics metrics) {
+        if (Console.getLevel() == Console.Level.OFF) {
+            return;
+        }
+        Console.summary(colorize(" Load Test Summary ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        Console.summary(colorize("Iterations : ", BOLD()), String.valueOf(metrics.getIterations().get()),
+                colorize("  Elapsed : ", BOLD()), metrics.getElapsed() + " ms");
+        if (metrics.getIterationLatency().getCount() > 0 || metrics.getDropped().get() > 0) {
+            Console.summary(colorize("Dropped : ", BOLD()), String.valueOf(metrics.getDropped().get()),
+                    colorize("  Late : ", BOLD()), String.valueOf(metrics.getLate().get()),
+                    colorize("  Iteration p95 : ", BOLD()), metrics.getIterationLatency().getValueAtPercentile(95) + " ms",
+                    colorize("  Service time p95 : ", BOLD()), metrics.getIterationServiceTime().getValueAtPercentile(95) + " ms");
+        }
+        for (StepMetrics step : metrics.getSteps().values()) {
+            Console.summary(
+                    colorize(step.getName(), BOLD()),
+                    " count=", String.valueOf(step.getCount()),
+                    " errors=", String.valueOf(step.getErrorCount()),
+                    " rps=", String.format("%.2f", step.getThroughput(metrics.getElapsed())),
+                    " min=", String.valueOf(step.getHistogram().getMin()),
+                    " mean=", String.format("%.2f", step.getHistogram().getMean()),
+                    " p50=", String.valueOf(step.getHistogram().getValueAtPercentile(50)),
+                    " p95=", String.valueOf(step.getHistogram().getValueAtPercentile(95)),
+                    " p99=", String.valueOf(step.getHistogram().getValueAtPercentile(99)),
+                    " max=", String.valueOf(step.getHistogram().getMax()), " ms"
+            );
+        }
+        Console.summary("\n");
+    }
+
+    private void printThresholds(List<Thresholds.Result> results) {
+        if (Console.getLevel() == Console.Level.OFF) {
+            return;
+        }
+        Console.summary(colorize(" Thresholds ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        for (Thresholds.Result result : results) {
+            Console.summary(
+                    result.isPassed() ? colorize(" PASS ", BACK_COLOR(25, 217, 156), BLACK_TEXT(), BOLD()) : colorize(" FAIL ", BACK_COLOR(243, 80, 127), BLACK_TEXT(), BOLD()),
+                    " ", result.getMessage()
+            );
+        }
+        Console.summary("\n");
+    }
+
+    private Stream<DynamicTest> awaitSteps(List<StepSpec> stepSpecs, CompletableFuture<List<Step>> row) {
+        return IntStream.range(0, stepSpecs.size()).mapToObj(i -> {
+            return DynamicTest.dynamicTest("Step : " + stepSpecs.get(i).getName(), () -> {
+                List<Step> rowSteps;
+                try {
+                    rowSteps = row.join();
+                } catch (CompletionException e) {
+                    throw e.getCause();
+                }
+                Step step = rowSteps.get(i);
+                if (step.getFailure() != null) {
+                    throw step.getFailure();
+                }
+            });
+        });
+    }
 
     private Stream<DynamicTest> runSteps(List<StepSpec> stepSpecs, String key) {
         Log.debug("Start running scenario");
         if(!steps.containsKey(key)) {
             steps.put(key, new ArrayList<>());
         }
+        AtomicLong sectionStart = new AtomicLong();
         return stepSpecs.stream().map(spec -> {
-            Step step = null;
-            if (spec.equals("custom")) {
-                // TODO : implement custom steps
-            }else{
-                Log.debug("Initialize http step = {}", spec.getName());
-                step = new HttpRequestStep(spec, this.context);
-            }
+            Step step = createStep(spec, this.context);
             this.steps.get(key).add(step);
-            this.context.getSteps().add(step);
+            this.context.addStep(step);
 
             Step s = step;
             return DynamicTest.dynamicTest("Step : " + step.getSpec().getName(), () -> {
-                String inputName = "";
-                if(context.getInputs().getName() != null) {
-                    inputName = "For: ["+ context.getInputs().getName() + "] ";
-                }
-                Console.print(colorize(" Start " + inputName + " Step: [" + s.getSpec().getName() + "] ", BACK_COLOR(171, 142, 255), BOLD(), BLACK_TEXT()));
-                Console.print("");
-                Log.debug("Start pre processing {}", spec.getName());
-                s.preProcess();
-                Log.debug("Start processing {}", spec.getName());
-                if(s.process()) {
-                    Log.debug("Start post processing {}", spec.getName());
-                    s.postProcess();
+                sectionStart.compareAndSet(0, System.nanoTime());
+                try {
+                    executeTimed(s, sectionStart.get());
+                } catch (Throwable e) {
+                    s.setFailure(e);
+                    throw e;
+                } finally {
+                    recordMetrics(s);
                 }
-                Console.print("");
-                Console.print(colorize(" End " + inputName + "[" + s.getSpec().getName() + "] ", BACK_COLOR(192, 192, 192), BOLD(), BLACK_TEXT()));
-                Log.debug("End post processing {}", spec.getName());
-                Console.print("\n");
             });
         });
     }
 
+    private Step createStep(StepSpec spec, Context context) {
+        Step step = null;
+        if (spec.equals("custom")) {
+            // TODO : implement custom steps
+        }else{
+            Log.debug("Initialize http step = {}", spec.getName());
+            step = new HttpRequestStep(spec, context);
+        }
+        return step;
+    }
+
+    private void executeStep(Step s) {
+        Context context = s.getContext();
+        String inputName = "";
+        if(context.getInputs().getName() != null) {
+            inputName = "For: ["+ context.getInputs().getName() + "] ";
+        }
+        if (Console.isEnabled()) {
+            Console.print(colorize(" Start " + inputName + " Step: [" + s.getSpec().getName() + "] ", BACK_COLOR(171, 142, 255), BOLD(), BLACK_TEXT()));
+            Console.print("");
+        }
+        Log.debug("Start pre processing {}", s.getSpec().getName());
+        s.preProcess();
+        Log.debug("Start processing {}", s.getSpec().getName());
+        if(s.process()) {
+            Log.debug("Start post processing {}", s.getSpec().getName());
+            s.postProcess();
+        }
+        if (Console.isEnabled()) {
+            Console.print("");
+            Console.print(colorize(" End " + inputName + "[" + s.getSpec().getName() + "] ", BACK_COLOR(192, 192, 192), BOLD(), BLACK_TEXT()));
+            Console.print("\n");
+        }
+        Log.debug("End post processing {}", s.getSpec().getName());
+    }
+
 }
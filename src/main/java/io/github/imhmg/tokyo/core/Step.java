@@ -4,10 +4,13 @@ import io.github.imhmg.tokyo.commons.assertions.AssertResult;
 import io.github.imhmg.tokyo.commons.Console;
 import io.github.imhmg.tokyo.commons.Log;
 import io.github.imhmg.tokyo.core.spec.StepSpec;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static com.diogonunes.jcolor.Ansi.*;
 import static com.diogonunes.jcolor.Attribute.*;
@@ -20,6 +23,16 @@ public abstract class Step {
     private Context context;
     private Hook preHook;
     private Hook postHook;
+    private Throwable failure;
+    private long startOffset;
+    private long endOffset;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private VariableScope scope;
+    // Defines of the step, other steps see them once the step finished
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, String> defines = Collections.emptyMap();
 
     public Step(StepSpec spec, Context context) {
         this.spec = spec;
@@ -32,7 +45,9 @@ public abstract class Step {
 
     public void preProcess() {
         if (preHook != null) {
-            Console.print(colorize("Executing pre hook [" + this.spec.getPreHook() + "]", BOLD(), UNDERLINE(), TEXT_COLOR(152)));
+            if (Console.isEnabled()) {
+                Console.print(colorize("Executing pre hook [" + this.spec.getPreHook() + "]", BOLD(), UNDERLINE(), TEXT_COLOR(152)));
+            }
             preHook.execute(this);
             Console.print("");
         } else {
@@ -42,8 +57,10 @@ public abstract class Step {
 
     public void postProcess() {
         if (postHook != null) {
-            Console.print("");
-            Console.print(colorize("Executing post hook [" + this.spec.getPostHook() + "]", BOLD(), UNDERLINE(), TEXT_COLOR(152)));
+            if (Console.isEnabled()) {
+                Console.print("");
+                Console.print(colorize("Executing post hook [" + this.spec.getPostHook() + "]", BOLD(), UNDERLINE(), TEXT_COLOR(152)));
+            }
             postHook.execute(this);
             Console.print("");
         } else {
@@ -54,31 +71,44 @@ public abstract class Step {
     public String getVar(String key) {
         String val = this.context.getStepVariable(key);
         if (val != null) {
-            Log.debug("Var value found in steps variables. key = {}, val = {}", key, val);
+            if (Log.isDebug) {
+                Log.debug("Var value found in steps variables. key = {}, val = {}", key, val);
+            }
             return val;
         }
-        if (this.getContext().getVars().containsKey(key)) {
-            val = String.valueOf(this.getContext().getVars().get(key));
-            Log.debug("Var value found in context variables. key = {}, val = {}", key, val);
-        } else if (this.spec.getConfigs().containsKey(key)) {
-            val = this.spec.getConfigs().get(key);
-            Log.debug("Var value found in current step configs. key = {}, val = {}", key, val);
-        } else if (this.context.getInputData().containsKey(key)) {
-            val = String.valueOf(this.context.getInputData().get(key));
-            Log.debug("Var value found in current inputs. key = {}, val = {}", key, val);
-        } else if (this.context.getConfigs().containsKey(key)) {
-            val = String.valueOf(this.context.getConfigs().get(key));
-            Log.debug("Var value found in scenario config. key = {}, val = {}", key, val);
-        } else {
-            Log.debug("Var value not found for key = {}", key);
+        val = this.defines.get(key);
+        if (val != null) {
+            return val;
+        }
+        if (this.scope == null) {
+            this.scope = this.context.getScope(this.spec.getConfigs());
+        }
+        val = this.scope.get(key);
+        if (Log.isDebug) {
+            Log.debug("Var value for key = {}, val = {}", key, val);
         }
         return val;
     }
 
+    public void setContext(Context context) {
+        this.context = context;
+        this.scope = null;
+    }
+
     public void setVar(String key, String value) {
         this.getContext().getVars().put(key, value);
     }
 
+    protected void setDefines(Map<String, String> defines) {
+        this.defines = defines;
+    }
+
+    public void publishDefines() {
+        for (Map.Entry<String, String> entry : this.defines.entrySet()) {
+            setVar(entry.getKey(), entry.getValue());
+        }
+    }
+
     public abstract boolean isExecutionSuccess();
 
     public abstract String getStepVariables(String key);
@@ -110,5 +140,9 @@ public abstract class Step {
 
     public abstract String getAdditionalDetails();
 
+    public void release() {
+        // Called once the step is in the report, steps keeping response data drop it
+    }
+
 
 }
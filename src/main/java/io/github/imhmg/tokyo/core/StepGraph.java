@@ -0,0 +1,204 @@
+package io.github.imhmg.tokyo.core;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.http.HttpSpec;
+import io.github.imhmg.tokyo.core.http.HttpSpecTemplate;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+
+import java.util.*;
+
+/**
+ * Dependencies between scenario steps. A step depends on the steps listed in its dependsOn, on
+ * the steps it references with ${step.id...} and on the closest previous step which captures or
+ * defines a variable it references. Steps are also kept in their written order where running them
+ * together would change the result: a step setting a variable waits for the previous steps which
+ * read or set it, and a step sending anything but GET, HEAD or OPTIONS waits for the previous steps
+ * since the last such step, unless it declares dependsOn. Variables set from hooks cannot be
+ * detected, such steps must use dependsOn.
+ */
+public class StepGraph {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    private final List<String> order = new ArrayList<>();
+
+    public StepGraph(List<StepSpec> steps) {
+        Set<String> ids = new HashSet<>();
+        for (StepSpec step : steps) {
+            ids.add(step.getId());
+        }
+        Map<String, StepVariables> variables = new HashMap<>();
+        for (StepSpec step : steps) {
+            variables.put(step.getId(), new StepVariables(step));
+        }
+        addRequiredDependencies(steps, ids, variables);
+        validateCycles();
+        addOrderDependencies(steps, variables);
+        for (StepSpec step : steps) {
+            Log.debug("Step {} depends on {}", step.getId(), getDependencies(step.getId()));
+            sort(step.getId(), new HashSet<>());
+        }
+    }
+
+    public Set<String> getDependencies(String stepId) {
+        return dependencies.getOrDefault(stepId, Collections.emptySet());
+    }
+
+    public List<String> getOrder() {
+        // Every step comes after the steps it depends on, steps that can run in written order keep it
+        return Collections.unmodifiableList(order);
+    }
+
+    private void addRequiredDependencies(List<StepSpec> steps, Set<String> ids, Map<String, StepVariables> variables) {
+        Map<String, String> producers = new HashMap<>();
+        for (StepSpec step : steps) {
+            Set<String> dependsOn = new LinkedHashSet<>();
+            if (step.getDependsOn() != null) {
+                for (String id : step.getDependsOn()) {
+                    if (!ids.contains(id)) {
+                        throw new IllegalArgumentException("Invalid dependsOn " + id + " in step " + step.getId());
+                    }
+                    dependsOn.add(id);
+                }
+            }
+            StepVariables stepVariables = variables.get(step.getId());
+            for (String variable : stepVariables.reads) {
+                String producer = getProducer(variable, producers, ids);
+                if (producer != null && !producer.equals(step.getId())) {
+                    dependsOn.add(producer);
+                }
+            }
+            dependencies.put(step.getId(), dependsOn);
+            for (String variable : stepVariables.produces) {
+                producers.put(variable, step.getId());
+            }
+        }
+    }
+
+    private void addOrderDependencies(List<StepSpec> steps, Map<String, StepVariables> variables) {
+        // Order is only kept when the steps are not already ordered the other way by dependsOn
+        Map<String, List<String>> readers = new HashMap<>();
+        Map<String, String> producers = new HashMap<>();
+        String lastWrite = null;
+        List<String> readsSinceWrite = new ArrayList<>();
+        for (StepSpec step : steps) {
+            String id = step.getId();
+            StepVariables stepVariables = variables.get(id);
+            Set<String> previous = new LinkedHashSet<>();
+            for (String variable : stepVariables.produces) {
+                previous.addAll(readers.getOrDefault(variable, Collections.emptyList()));
+                if (producers.containsKey(variable)) {
+                    previous.add(producers.get(variable));
+                }
+            }
+            if (step.getDependsOn() == null || step.getDependsOn().isEmpty()) {
+                if (lastWrite != null) {
+                    previous.add(lastWrite);
+                }
+                if (!stepVariables.safe) {
+                    previous.addAll(readsSinceWrite);
+                }
+            }
+            for (String dependency : previous) {
+                if (!dependency.equals(id) && !dependsOn(dependency, id, new HashSet<>())) {
+                    dependencies.get(id).add(dependency);
+                }
+            }
+            for (String variable : stepVariables.reads) {
+                readers.computeIfAbsent(variable, k -> new ArrayList<>()).add(id);
+            }
+            for (String variable : stepVariables.produces) {
+                producers.put(variable, id);
+            }
+            if (stepVariables.safe) {
+                readsSinceWrite.add(id);
+            } else {
+                lastWrite = id;
+                readsSinceWrite.clear();
+            }
+        }
+    }
+
+    private boolean dependsOn(String id, String other, Set<String> visited) {
+        if (!visited.add(id)) {
+            return false;
+        }
+        for (String dependency : getDependencies(id)) {
+            if (dependency.equals(other) || dependsOn(dependency, other, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sort(String id, Set<String> visited) {
+        if (order.contains(id) || !visited.add(id)) {
+            return;
+        }
+        for (String dependency : getDependencies(id)) {
+            sort(dependency, visited);
+        }
+        order.add(id);
+    }
+
+    private String getProducer(String variable, Map<String, String> producers, Set<String> ids) {
+        if (variable.startsWith("step.")) {
+            String id = variable.substring("step.".length()).split("\\.")[0];
+            return ids.contains(id) ? id : null;
+        }
+        return producers.get(variable);
+    }
+
+    private void validateCycles() {
+        Set<String> visited = new HashSet<>();
+        Set<String> visiting = new HashSet<>();
+        for (String id : dependencies.keySet()) {
+            visit(id, visited, visiting);
+        }
+    }
+
+    private void visit(String id, Set<String> visited, Set<String> visiting) {
+        if (visited.contains(id)) {
+            return;
+        }
+        if (!visiting.add(id)) {
+            throw new IllegalArgumentException("Step dependencies cannot be cyclic. Cycle found at step " + id);
+        }
+        for (String dependency : getDependencies(id)) {
+            visit(dependency, visited, visiting);
+        }
+        visiting.remove(id);
+        visited.add(id);
+    }
+
+    private static class StepVariables {
+        // Variables of other steps the step references, its own defines are not read from other steps
+        private final Set<String> reads = new LinkedHashSet<>();
+        private final Set<String> produces = new LinkedHashSet<>();
+        private boolean safe = false;
+
+        private StepVariables(StepSpec step) {
+            HttpSpecTemplate template = HttpSpecTemplate.of(step.getRef());
+            Set<String> defines = new HashSet<>();
+            if (template.isCompiled()) {
+                HttpSpec spec = template.getSpec();
+                if (spec.getDefine() != null) {
+                    defines.addAll(spec.getDefine().keySet());
+                }
+                produces.addAll(defines);
+                if (spec.getCaptures() != null) {
+                    produces.addAll(spec.getCaptures().keySet());
+                }
+                safe = spec.getMethod() != null && SAFE_METHODS.contains(spec.getMethod().trim().toUpperCase(Locale.ROOT));
+            } else {
+                Log.debug("Unable to read captures of step {}", step.getId());
+            }
+            for (String variable : template.getVariables()) {
+                if (!defines.contains(variable)) {
+                    reads.add(variable);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.imhmg.tokyo.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variables visible to a step. Scenario configs, inputs and step configs never change while
+ * a step runs, they are merged once into a read only map. Context vars are checked first
+ * since captures and defines are added to them while the scenario runs.
+ */
+public class VariableScope {
+
+    private final Map<String, Object> vars;
+    private final Map<String, Object> values;
+
+    VariableScope(Map<String, Object> vars, Map<String, Object> values) {
+        this.vars = vars;
+        this.values = values;
+    }
+
+    static Map<String, Object> merge(Map<String, ?> base, Map<String, ?> overrides) {
+        // Values of overrides take precedence over base values
+        Map<String, Object> values = base == null ? new HashMap<>() : new HashMap<>(base);
+        if (overrides != null) {
+            values.putAll(overrides);
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    public String get(String key) {
+        Object val = vars.get(key);
+        if (val != null || vars.containsKey(key)) {
+            return String.valueOf(val);
+        }
+        val = values.get(key);
+        if (val != null || values.containsKey(key)) {
+            return String.valueOf(val);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Limits the response body kept for the report after a step finished. Bigger bodies are
+ * truncated, or written to a temp file when spill is enabled.
+ */
+@Getter
+public class BodyRetention {
+
+    public static final String TRUNCATE = "truncate";
+    public static final String SPILL = "spill";
+
+    private final int maxSize;
+    private final boolean spill;
+
+    public BodyRetention(int maxSizeKb, boolean spill) {
+        this.maxSize = maxSizeKb * 1024;
+        this.spill = spill;
+    }
+
+    public static BodyRetention of(RunSpec.ReportSpec reportSpec) {
+        if (reportSpec.getMaxBodySize() == null) {
+            return null;
+        }
+        return new BodyRetention(reportSpec.getMaxBodySize(), SPILL.equalsIgnoreCase(reportSpec.getBodyOverflow()));
+    }
+
+    public void apply(HttpResponse response) {
+        String body = response.getBody();
+        if (body == null || body.length() <= maxSize) {
+            return;
+        }
+        String note = "truncated, " + body.length() / 1024 + " KB total";
+        if (spill) {
+            try {
+                Path file = Files.createTempFile("tky-body-", ".txt");
+                Files.write(file, body.getBytes(StandardCharsets.UTF_8));
+                response.setBodyFile(file.toAbsolutePath().toString());
+                note = note + ", full body in " + response.getBodyFile();
+            } catch (IOException e) {
+                Log.error("Unable to write response body to file : {}", e.getMessage());
+            }
+        }
+        response.setBody(body.substring(0, maxSize) + "\n... [" + note + "]");
+        response.setTruncated(true);
+    }
+}
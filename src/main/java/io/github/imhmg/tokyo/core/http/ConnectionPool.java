@@ -0,0 +1,179 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import lombok.Getter;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled http client of a target host used by the RestAssured transport. Steps of a spec with the
+ * same host and pool options share one pool, so connections are reused across steps and rows.
+ */
+@Getter
+@SuppressWarnings("deprecation")
+public class ConnectionPool {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final String host;
+    private final ConnectionPoolSpec spec;
+    private final int maxConnections;
+    private final PoolingClientConnectionManager manager;
+    private final TimedHttpClient client;
+    private final AtomicLong requests = new AtomicLong();
+    // Connections handed out by the manager and not released yet
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+    private volatile long lastSweep = System.nanoTime();
+
+    ConnectionPool(HttpHost target, HttpRequest request) {
+        this.host = target.toURI();
+        this.spec = request.getPool();
+        this.maxConnections = spec.getMaxConnections() == null ? DEFAULT_MAX_CONNECTIONS : spec.getMaxConnections();
+        SchemeRegistry schemes = SchemeRegistryFactory.createDefault();
+        if (request.isSslDisabled()) {
+            try {
+                schemes.register(new Scheme("https", 443, new SSLSocketFactory((chain, authType) -> true, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER)));
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to disable ssl verification", e);
+            }
+        }
+        this.manager = new PoolingClientConnectionManager(schemes) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new TimedHttpClient.TimedConnectionOperator(registry);
+            }
+
+            @Override
+            public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+                ClientConnectionRequest connectionRequest = super.requestConnection(route, state);
+                return new ClientConnectionRequest() {
+                    @Override
+                    public ManagedClientConnection getConnection(long timeout, TimeUnit unit) throws InterruptedException, ConnectionPoolTimeoutException {
+                        ManagedClientConnection connection = connectionRequest.getConnection(timeout, unit);
+                        peakLeased.accumulateAndGet(leased.incrementAndGet(), Math::max);
+                        return connection;
+                    }
+
+                    @Override
+                    public void abortRequest() {
+                        connectionRequest.abortRequest();
+                    }
+                };
+            }
+
+            @Override
+            public void releaseConnection(ManagedClientConnection connection, long keepAlive, TimeUnit unit) {
+                try {
+                    super.releaseConnection(connection, keepAlive, unit);
+                } finally {
+                    leased.decrementAndGet();
+                }
+            }
+        };
+        this.manager.setMaxTotal(maxConnections);
+        this.manager.setDefaultMaxPerRoute(maxConnections);
+        this.client = new TimedHttpClient(manager);
+        if (Boolean.FALSE.equals(spec.getKeepAlive())) {
+            client.setReuseStrategy(new NoConnectionReuseStrategy());
+        } else if (spec.getIdleTimeout() != null) {
+            long idleTimeout = spec.getIdleTimeout();
+            client.setKeepAliveStrategy((response, context) -> {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return duration > 0 ? Math.min(duration, idleTimeout) : idleTimeout;
+            });
+        }
+        if (spec.getPrewarm() != null && spec.getPrewarm() > 0) {
+            prewarm(target, request);
+        }
+    }
+
+    public RestAssuredConfig getConfig() {
+        // Global RestAssured config is kept, only the client is replaced. The client instance is reused,
+        // RestAssured would shut the pool down after every request otherwise
+        RestAssuredConfig config = RestAssured.config();
+        return config.httpClient(config.getHttpClientConfig()
+                .httpClientFactory(() -> client)
+                .reuseHttpClientInstance());
+    }
+
+    public Map<String, Object> getStats() {
+        PoolStats total = manager.getTotalStats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("host", host);
+        stats.put("max", total.getMax());
+        stats.put("leased", total.getLeased());
+        stats.put("available", total.getAvailable());
+        stats.put("pending", total.getPending());
+        stats.put("peakLeased", peakLeased.get());
+        stats.put("requests", requests.get());
+        stats.put("utilization", total.getMax() == 0 ? 0 : peakLeased.get() * 100.0 / total.getMax());
+        return stats;
+    }
+
+    public void beforeRequest() {
+        requests.incrementAndGet();
+        long now = System.nanoTime();
+        if (now - lastSweep > SWEEP_INTERVAL) {
+            lastSweep = now;
+            manager.closeExpiredConnections();
+            if (spec.getIdleTimeout() != null) {
+                manager.closeIdleConnections(spec.getIdleTimeout(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void prewarm(HttpHost target, HttpRequest request) {
+        // Connections are opened and returned to the pool, so the first requests do not pay for connect and handshake
+        if (request.getProxyHost() != null) {
+            Log.debug("Connections through a proxy are not prewarmed, host = {}", host);
+            return;
+        }
+        HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        int count = Math.min(spec.getPrewarm(), maxConnections);
+        List<ManagedClientConnection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                ManagedClientConnection connection = manager.requestConnection(route, null).getConnection(10, TimeUnit.SECONDS);
+                connections.add(connection);
+                connection.open(route, new BasicHttpContext(), client.getParams());
+                connection.markReusable();
+            }
+            Log.debug("Prewarmed {} connections to {}", count, host);
+        } catch (Exception e) {
+            Log.error("Unable to prewarm connections to {} : {}", host, e.getMessage());
+        } finally {
+            long idleTimeout = spec.getIdleTimeout() == null ? -1 : spec.getIdleTimeout();
+            for (ManagedClientConnection connection : connections) {
+                manager.releaseConnection(connection, idleTimeout, TimeUnit.MILLISECONDS);
+            }
+            // Prewarmed connections are not requests, the peak only counts connections leased by steps
+            peakLeased.set(0);
+        }
+    }
+
+    public void close() {
+        manager.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.imhmg.tokyo.core.http;
+
+import lombok.*;
+
+/**
+ * Connection pool options of a target host, read from the request options or the configs.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class ConnectionPoolSpec {
+    // Max open connections to the host
+    private Integer maxConnections;
+    // Idle connections are closed after this time in milliseconds
+    private Long idleTimeout;
+    // Connections are closed after every request when false
+    private Boolean keepAlive;
+    // Number of connections opened when the pool is created
+    private Integer prewarm;
+}
@@ -0,0 +1,92 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.commons.VariableParser;
+import io.github.imhmg.tokyo.core.Context;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import org.apache.http.HttpHost;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connection pools of a spec run, keyed by target host and pool options. Pools are closed and
+ * reported with the spec, other specs running in the same JVM have their own pools.
+ */
+public class ConnectionPools {
+
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    public ConnectionPool get(HttpRequest request) {
+        URI uri = URI.create(request.getEndpoint());
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        HttpHost target = new HttpHost(uri.getHost(), port, uri.getScheme());
+        String key = target.toURI() + "|" + request.getPool() + "|" + request.isSslDisabled() + "|" + request.getProxyHost() + ":" + request.getProxyPort();
+        return pools.computeIfAbsent(key, k -> new ConnectionPool(target, request));
+    }
+
+    public void prepare(List<StepSpec> steps, Context context) {
+        // Pools are created and prewarmed before the scenario starts, so no measured step opens them.
+        // Hosts using input or captured values are only known when the step runs, their pools are created then
+        for (StepSpec step : steps) {
+            try {
+                prepare(step, context);
+            } catch (RuntimeException e) {
+                Log.debug("Connection pool of step {} is created when it runs : {}", step.getName(), e.getMessage());
+            }
+        }
+    }
+
+    private void prepare(StepSpec step, Context context) {
+        HttpSpecTemplate template = HttpSpecTemplate.of(step.getRef());
+        if (!template.isCompiled() || template.getSpec().getEndpoint() == null) {
+            return;
+        }
+        VariableParser.ValueProvider scope = context.getScope(step.getConfigs())::get;
+        VariableParser.ValueProvider provider = key -> {
+            String value = scope.getValue(key);
+            return value != null && value.contains("${prompt") ? null : value;
+        };
+        Map<String, Object> options = new HashMap<>();
+        for (Map.Entry<String, Object> e : template.getSpec().getOptions().entrySet()) {
+            options.put(e.getKey(), e.getValue() == null ? null : VariableParser.replaceVariables(String.valueOf(e.getValue()), provider));
+        }
+        if (!(HttpTransports.get(HttpRequestStep.getOption(options, "TKY_HTTP_TRANSPORT", provider)) instanceof RestAssuredTransport)) {
+            return;
+        }
+        ConnectionPoolSpec pool = HttpRequestStep.getPoolSpec(key -> HttpRequestStep.getOption(options, key, provider), step.getName());
+        if (pool == null) {
+            return;
+        }
+        String endpoint = VariableParser.replaceVariables(template.getSpec().getEndpoint(), provider);
+        int variable = endpoint.indexOf("${");
+        if (variable >= 0) {
+            // Only the host is needed, the path may use values known when the step runs
+            int path = endpoint.indexOf('/', endpoint.indexOf("://") + 3);
+            if (path < 0 || path > variable) {
+                return;
+            }
+            endpoint = endpoint.substring(0, path);
+        }
+        HttpRequest request = HttpRequest.builder().endpoint(endpoint).pool(pool).build();
+        HttpRequestStep.setConnection(request, options, provider);
+        get(request);
+    }
+
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (ConnectionPool pool : pools.values()) {
+            stats.add(pool.getStats());
+        }
+        stats.sort(Comparator.comparing(s -> String.valueOf(s.get("host"))));
+        return stats;
+    }
+
+    public void close() {
+        for (ConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+        pools.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.imhmg.tokyo.core.http;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendered request handed to a transport, together with the connection options of the step.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HttpRequest {
+    private String method;
+    private String endpoint;
+    private Map<String, String> headers;
+    private Map<String, String> queryParams;
+    private Map<String, Object> formParams;
+    private String body;
+    private boolean sslDisabled;
+    private String proxyHost;
+    private Integer proxyPort;
+    private String proxyUsername;
+    private String proxyPassword;
+    // Json paths read while streaming the body, the body is kept when null
+    private Set<String> streamPaths;
+    // Pool of the target host, requests use the default connection handling when null
+    private ConnectionPoolSpec pool;
+    // Pool of the spec for the target host, used by the RestAssured transport
+    private ConnectionPool connectionPool;
+    // 1.1 or 2, used by the java transport
+    private String httpVersion;
+}
@@ -6,18 +6,16 @@ import io.github.imhmg.tokyo.core.spec.StepSpec;
 import io.github.imhmg.tokyo.core.Context;
 import io.github.imhmg.tokyo.core.Step;
 import io.github.imhmg.tokyo.commons.*;
-import io.restassured.RestAssured;
 import io.restassured.http.Header;
-import io.restassured.response.Response;
-import io.restassured.specification.ProxySpecification;
-import io.restassured.specification.RequestSpecification;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.function.Executable;
 import org.opentest4j.AssertionFailedError;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static com.diogonunes.jcolor.Ansi.*;
@@ -46,78 +44,76 @@ public class HttpRequestStep extends Step {
 
     @Override
     public boolean process() {
-        this.sendRequest();
-        if (!isHttpRequestFinished) {
-            return false;
+        try {
+            this.sendRequest();
+            if (!isHttpRequestFinished) {
+                return false;
+            }
+            List<Executable> executables = this.processAsserts();
+            Assertions.assertAll(this.getSpec().getName(), executables);
+            isAllAssertsSuccess = true;
+            this.processCaptures();
+            isExecutionSuccess = true;
+            return true;
+        } finally {
+            // Asserts and captures are done, the parsed body is not kept and the body kept for the report is limited
+            if (this.httpResponse != null) {
+                this.httpResponse.releaseJsonDocument();
+                if (getContext().getBodyRetention() != null) {
+                    getContext().getBodyRetention().apply(this.httpResponse);
+                }
+            }
         }
-        List<Executable> executables = this.processAsserts();
-        Assertions.assertAll(this.getSpec().getName(), executables);
-        isAllAssertsSuccess = true;
-        this.processCaptures();
-        isExecutionSuccess = true;
-        return true;
     }
 
     private HttpSpec parseRefFileContent() {
-        // First parse and process defines
+        // Defines are rendered first, then the spec is rendered from the compiled template
         Log.debug("Read http spec file = {}", this.getSpec().getRef());
-        String refFileContent = FileReader.readFile(this.getSpec().getRef());
-        refFileContent = VariableParser.replaceVariables(refFileContent, this::getVar);
-        HttpSpec tempParse = YamlParser.parse(refFileContent, HttpSpec.class);
-        parseDefines(tempParse);
-        // Second parse
-        refFileContent = FileReader.readFile(this.getSpec().getRef());
-        refFileContent = VariableParser.replaceVariables(refFileContent, this::getVar);
-        return YamlParser.parse(refFileContent, HttpSpec.class);
-    }
-
-    private void parseDefines(HttpSpec spec) {
-        Log.debug("Parse defines");
-        if (spec == null) {
-            return;
-        }
-        for (Map.Entry<String, Object> entry : spec.getDefine().entrySet()) {
-            Log.debug("Parse defines add vars {} : {}", entry.getKey(), entry.getValue());
-            setVar(entry.getKey(), String.valueOf(entry.getValue()));
-        }
+        HttpSpecTemplate template = HttpSpecTemplate.of(this.getSpec().getRef());
+        Map<String, String> defines = template.renderDefines(this::getVar);
+        Log.debug("Parse defines {}", defines);
+        setDefines(defines);
+        return template.render(this::getVar);
     }
 
     private void sendRequest() {
-        RequestSpecification request = RestAssured.given();
-        request = setRequestOptions(request);
+        HttpRequest request = createRequest();
         Log.debug("HTTP request, method: {}, url: {}", this.httpRequestSpec.getMethod(), this.httpRequestSpec.getEndpoint());
 
-        Console.print(
-                colorize(" Request ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()),
-                colorize(" " + this.httpRequestSpec.getMethod() + " ", BLACK_TEXT(), YELLOW_BACK(), BOLD()), " ",
-                colorize(this.httpRequestSpec.getEndpoint(), BLUE_TEXT()),
-                "\n"
-        );
-
-        request = setQueryParameters(request);
-        request = setHeaders(request);
-        request = setFormData(request);
-        request = setBody(request);
-        request = request.when();
+        if (Console.isEnabled()) {
+            Console.print(
+                    colorize(" Request ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()),
+                    colorize(" " + this.httpRequestSpec.getMethod() + " ", BLACK_TEXT(), YELLOW_BACK(), BOLD()), " ",
+                    colorize(this.httpRequestSpec.getEndpoint(), BLUE_TEXT()),
+                    "\n"
+            );
+            printQueryParameters();
+            printHeaders();
+            printFormData();
+            printBody();
+        }
         try {
-            Response response = request.request(this.httpRequestSpec.getMethod(), this.httpRequestSpec.getEndpoint());
-            this.httpResponse = new HttpResponse(response.then().extract());
+            this.httpResponse = getTransport().send(request);
             isHttpRequestFinished = true;
         }catch (Exception exception) {
             httpRequestException = exception;
 
-            Console.print(
-                    colorize(" ERROR OCCURRED ", BACK_COLOR(243, 80, 127), BLACK_TEXT(), BOLD()),
-                    "\n",
-                    colorize(exception.getMessage(), BOLD()),
-                    "\n\n"
-            );
-
-            exception.printStackTrace();
+            if (Console.isEnabled()) {
+                Console.print(
+                        colorize(" ERROR OCCURRED ", BACK_COLOR(243, 80, 127), BLACK_TEXT(), BOLD()),
+                        "\n",
+                        colorize(exception.getMessage(), BOLD()),
+                        "\n\n",
+                        ExceptionUtils.getStackTrace(exception)
+                );
+            }
             this.assertionsResults.add(new AssertResult("Exception occurred : " + exception.getMessage(), false));
             Assertions.fail("Exception occurred");
         }
 
+        if (!Console.isEnabled()) {
+            return;
+        }
         Console.print(
                 colorize(" Response ", BACK_COLOR(25, 217, 156), BLACK_TEXT(), BOLD()),
                 colorize(" " + this.httpResponse.getStatus() + " " + HTTPStatus.httpStatusMap.get(this.httpResponse.getStatus()) + " [" + this.httpResponse.getTime() + " ms] ", BACK_COLOR(85, 85, 85), TEXT_COLOR(255), BOLD()),
@@ -134,43 +130,148 @@ public class HttpRequestStep extends Step {
         }
     }
 
-    private RequestSpecification setRequestOptions(RequestSpecification request) {
-        if (StringUtils.equalsIgnoreCase(getVar("TKY_DISABLE_SSL"), "TRUE") ||
-                StringUtils.equalsIgnoreCase(String.valueOf(this.httpRequestSpec.getOptions().get("TKY_DISABLE_SSL")), "TRUE")) {
-            Log.debug("SSL verification disabled");
-            request = request.relaxedHTTPSValidation();
+    private Set<String> getStreamPaths() {
+        // Body can only be streamed when every body expression is a simple json path
+        if (!StringUtils.equalsIgnoreCase(getVar("TKY_STREAM_BODY"), "TRUE") &&
+                !StringUtils.equalsIgnoreCase(String.valueOf(this.httpRequestSpec.getOptions().get("TKY_STREAM_BODY")), "TRUE")) {
+            return null;
         }
-        if (StringUtils.isNoneBlank(getVar("TKY_PROXY_HOST"), getVar("TKY_PROXY_PORT"))) {
-            ProxySpecification proxySpecification = ProxySpecification.host(getVar("TKY_PROXY_HOST"))
-                    .withPort(Integer.parseInt(getVar("TKY_PROXY_PORT")));
-
-            if (StringUtils.isNotBlank(getVar("TKY_PROXY_USERNAME"))) {
-                proxySpecification = proxySpecification.withAuth(getVar("TKY_PROXY_USERNAME"), getVar("TKY_PROXY_PASSWORD"));
+        List<String> expressions = new ArrayList<>();
+        if (this.httpRequestSpec.getAsserts() != null) {
+            expressions.addAll(this.httpRequestSpec.getAsserts().values());
+        }
+        if (this.httpRequestSpec.getCaptures() != null) {
+            expressions.addAll(this.httpRequestSpec.getCaptures().values());
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (String expression : expressions) {
+            ExpressionParser.Result result;
+            try {
+                result = ExpressionParser.parseExpression(expression);
+            } catch (Exception e) {
+                return null;
             }
-            request = request.proxy(proxySpecification);
+            if (result.getSource() != ExpressionParser.Source.BODY) {
+                continue;
+            }
+            if (result.getFormat() != ExpressionParser.Format.JSON || !JsonStreamExtractor.isSupported(result.getKey())) {
+                Log.debug("Response body is kept, expression cannot be streamed : {}", expression);
+                return null;
+            }
+            paths.add(result.getKey());
+        }
+        return paths;
+    }
+
+    private HttpRequest createRequest() {
+        HttpRequest request = HttpRequest.builder()
+                .method(this.httpRequestSpec.getMethod())
+                .endpoint(this.httpRequestSpec.getEndpoint())
+                .headers(this.httpRequestSpec.getHeaders())
+                .queryParams(this.httpRequestSpec.getQueryParams())
+                .formParams(this.httpRequestSpec.getFormParams())
+                .body(this.httpRequestSpec.getBody())
+                .streamPaths(getStreamPaths())
+                .pool(getPoolSpec(this::getOption, getSpec().getName()))
+                .httpVersion(getOption("TKY_HTTP_VERSION"))
+                .build();
+        setConnection(request, this.httpRequestSpec.getOptions(), this::getVar);
+        HttpTransport transport = getTransport();
+        checkPool(transport, request.getPool(), getSpec().getName());
+        // Only the RestAssured transport uses the pools of the spec
+        if (request.getPool() != null && getContext().getConnectionPools() != null && transport instanceof RestAssuredTransport) {
+            request.setConnectionPool(getContext().getConnectionPools().get(request));
         }
         return request;
     }
 
+    public static void validatePool(VariableParser.ValueProvider options, String stepName) {
+        checkPool(HttpTransports.get(options.getValue("TKY_HTTP_TRANSPORT")), getPoolSpec(options, stepName), stepName);
+    }
+
+    private static void checkPool(HttpTransport transport, ConnectionPoolSpec pool, String stepName) {
+        // The JDK client keeps one connection pool for the JVM, pool options of a host cannot be applied to it
+        if (pool != null && transport instanceof JavaHttpTransport) {
+            throw new IllegalArgumentException("Connection pool options are not supported by the java transport. Invalid options in step " + stepName);
+        }
+    }
+
+    static void setConnection(HttpRequest request, Map<String, Object> options, VariableParser.ValueProvider vars) {
+        if (StringUtils.equalsIgnoreCase(vars.getValue("TKY_DISABLE_SSL"), "TRUE") ||
+                StringUtils.equalsIgnoreCase(String.valueOf(options.get("TKY_DISABLE_SSL")), "TRUE")) {
+            Log.debug("SSL verification disabled");
+            request.setSslDisabled(true);
+        }
+        if (StringUtils.isNoneBlank(vars.getValue("TKY_PROXY_HOST"), vars.getValue("TKY_PROXY_PORT"))) {
+            request.setProxyHost(vars.getValue("TKY_PROXY_HOST"));
+            request.setProxyPort(Integer.parseInt(vars.getValue("TKY_PROXY_PORT")));
+            if (StringUtils.isNotBlank(vars.getValue("TKY_PROXY_USERNAME"))) {
+                request.setProxyUsername(vars.getValue("TKY_PROXY_USERNAME"));
+                request.setProxyPassword(vars.getValue("TKY_PROXY_PASSWORD"));
+            }
+        }
+    }
+
+    static ConnectionPoolSpec getPoolSpec(VariableParser.ValueProvider options, String stepName) {
+        String maxConnections = options.getValue("TKY_POOL_MAX_CONNECTIONS");
+        String idleTimeout = options.getValue("TKY_POOL_IDLE_TIMEOUT");
+        String keepAlive = options.getValue("TKY_POOL_KEEP_ALIVE");
+        String prewarm = options.getValue("TKY_POOL_PREWARM");
+        if (StringUtils.isAllBlank(maxConnections, idleTimeout, keepAlive, prewarm)) {
+            return null;
+        }
+        try {
+            return ConnectionPoolSpec.builder()
+                    .maxConnections(StringUtils.isBlank(maxConnections) ? null : Integer.parseInt(maxConnections.trim()))
+                    .idleTimeout(StringUtils.isBlank(idleTimeout) ? null : Long.parseLong(idleTimeout.trim()))
+                    .keepAlive(StringUtils.isBlank(keepAlive) ? null : Boolean.parseBoolean(keepAlive.trim()))
+                    .prewarm(StringUtils.isBlank(prewarm) ? null : Integer.parseInt(prewarm.trim()))
+                    .build();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid connection pool option in step " + stepName + ". " + e.getMessage());
+        }
+    }
+
+    private String getOption(String key) {
+        return getOption(this.httpRequestSpec.getOptions(), key, this::getVar);
+    }
+
+    static String getOption(Map<String, Object> options, String key, VariableParser.ValueProvider vars) {
+        // Request options take precedence over configs
+        Object value = options.get(key);
+        return value != null ? String.valueOf(value) : vars.getValue(key);
+    }
+
+    private HttpTransport getTransport() {
+        return HttpTransports.get(getOption("TKY_HTTP_TRANSPORT"));
+    }
+
     private void processCaptures() {
         if (this.httpRequestSpec.getCaptures() == null) {
             Log.debug("No captures found");
             return;
         }
 
-        Console.print("\n",colorize(" Captures ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        boolean print = Console.isEnabled();
+        if (print) {
+            Console.print("\n", colorize(" Captures ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        }
 
         for (Map.Entry<String, String> e : this.httpRequestSpec.getCaptures().entrySet()) {
             String value = getResponseValuesByExpression(ExpressionParser.parseExpression(e.getValue()));
             Log.debug("Capture values, key: {}, value: {}", e.getKey(), value);
-            Console.print(e.getKey(), " = ", value);
+            if (print) {
+                Console.print(e.getKey(), " = ", value);
+            }
             setVar(e.getKey(), value);
         }
     }
 
     private List<Executable> processAsserts() {
         Log.debug("Start checking asserts");
-        Console.print("\n", colorize(" Assertions ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        if (Console.isEnabled()) {
+            Console.print("\n", colorize(" Assertions ", BACK_COLOR(90, 124, 255), BLACK_TEXT(), BOLD()));
+        }
         List<Executable> assertions = new ArrayList<>();
         // Check http status code
         if (StringUtils.isNotBlank(this.httpRequestSpec.getStatus())) {
@@ -205,108 +306,167 @@ public class HttpRequestStep extends Step {
                     Assertions.assertTrue(StringUtils.contains(actual, expected), key);
                 } else if ("[<!>]".equals(operator.getSyntax())) {
                     Assertions.assertFalse(StringUtils.contains(actual, expected), key);
+                } else if ("[<]".equals(operator.getSyntax())) {
+                    assertCompare(compare(actual, expected, key) < 0, actual, expected, operator, key);
+                } else if ("[<=]".equals(operator.getSyntax())) {
+                    assertCompare(compare(actual, expected, key) <= 0, actual, expected, operator, key);
+                } else if ("[>]".equals(operator.getSyntax())) {
+                    assertCompare(compare(actual, expected, key) > 0, actual, expected, operator, key);
+                } else if ("[>=]".equals(operator.getSyntax())) {
+                    assertCompare(compare(actual, expected, key) >= 0, actual, expected, operator, key);
                 } else if ("[<...>]".equals(operator.getSyntax())) {
-                    throw new UnsupportedOperationException("range compare implemented yet");
+                    // Range is inclusive, expected value is min...max
+                    String[] range = StringUtils.splitByWholeSeparator(expected, "...");
+                    if (range == null || range.length != 2) {
+                        throw new IllegalArgumentException("Invalid range " + expected + " in assert " + key + ". Range should be min...max");
+                    }
+                    assertCompare(compare(actual, range[0], key) >= 0 && compare(actual, range[1], key) <= 0, actual, expected, operator, key);
                 } else {
                     throw new UnsupportedOperationException("unsupported operator " + operator.getSyntax());
                 }
-                Console.print(colorize("Pass : " + key, TEXT_COLOR(66, 247, 112), BOLD()));
-                if (operator == null) {
-                    Console.print("     ", colorize("Actual: ", BOLD()), actual);
-                    Console.print("     ", colorize("Expected: ", BOLD()), "<not null>");
-                } else {
-                    Console.print("     ", colorize("Actual: ", BOLD()), actual);
-                    Console.print("     ", colorize("Operator: ", BOLD()), operator.getSyntax());
-                    Console.print("     ", colorize("Expected: ", BOLD()), expected);
+                if (Console.isEnabled()) {
+                    Console.print(colorize("Pass : " + key, TEXT_COLOR(66, 247, 112), BOLD()));
+                    printAssertValues(actual, expected, operator);
                 }
 
                 assertionsResults.add(new AssertResult(key, true, expected, actual));
             } catch (AssertionFailedError ex) {
                 String e = ex.getExpected() == null ? "" : ex.getExpected().getStringRepresentation();
                 String a = ex.getActual() == null ? "" : ex.getActual().getStringRepresentation();
-                Console.print(colorize("Fail : " + key, TEXT_COLOR(247, 66, 66), BOLD()));
-
-                if (operator == null) {
-                    Console.print("     ", colorize("Actual: ", BOLD()), actual);
-                    Console.print("     ", colorize("Expected: ", BOLD()), "<not null>");
-                } else {
-                    Console.print("     ", colorize("Actual: ", BOLD()), actual);
-                    Console.print("     ", colorize("Operator: ", BOLD()), operator.getSyntax());
-                    Console.print("     ", colorize("Expected: ", BOLD()), expected);
+                if (Console.isEnabled()) {
+                    Console.print(colorize("Fail : " + key, TEXT_COLOR(247, 66, 66), BOLD()));
+                    printAssertValues(actual, expected, operator);
                 }
                 assertionsResults.add(new AssertResult(key, false, e, a));
                 throw ex;
+            } catch (IllegalArgumentException ex) {
+                // Expected values are checked when the expression is parsed, still keep the assert in the report
+                assertionsResults.add(new AssertResult(key, false, expected, ex.getMessage()));
+                throw ex;
             }
         };
     }
 
+    private static int compare(String actual, String expected, String key) {
+        BigDecimal expectedValue = toNumber(expected);
+        if (expectedValue == null) {
+            throw new IllegalArgumentException("Expected value " + expected + " of assert " + key + " is not a number");
+        }
+        BigDecimal actualValue = toNumber(actual);
+        if (actualValue == null) {
+            throw new AssertionFailedError(key + " ==> actual value is not a number", expected, actual);
+        }
+        return actualValue.compareTo(expectedValue);
+    }
+
+    private static BigDecimal toNumber(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void assertCompare(boolean passed, String actual, String expected, Operator operator, String key) {
+        if (!passed) {
+            throw new AssertionFailedError(key + " ==> expected: " + operator.getDescription() + " <" + expected + "> but was: <" + actual + ">", operator.getSyntax() + " " + expected, actual);
+        }
+    }
+
+    private void printAssertValues(String actual, String expected, Operator operator) {
+        if (operator == null) {
+            Console.print("     ", colorize("Actual: ", BOLD()), actual);
+            Console.print("     ", colorize("Expected: ", BOLD()), "<not null>");
+        } else {
+            Console.print("     ", colorize("Actual: ", BOLD()), actual);
+            Console.print("     ", colorize("Operator: ", BOLD()), operator.getSyntax());
+            Console.print("     ", colorize("Expected: ", BOLD()), expected);
+        }
+    }
+
     public String getResponseValuesByExpression(ExpressionParser.Result parseExpression) {
         String value = null;
         if (parseExpression.getSource() == ExpressionParser.Source.STATUS) {
             value = String.valueOf(this.httpResponse.getStatus());
+        } else if (parseExpression.getSource() == ExpressionParser.Source.TIME) {
+            value = getTimeValue(parseExpression.getKey());
         } else if (parseExpression.getSource() == ExpressionParser.Source.HEADER) {
             value = this.httpResponse.getHeaders().getValue(parseExpression.getKey());
+        } else if (parseExpression.getSource() == ExpressionParser.Source.BODY && this.httpResponse.isStreamed()) {
+            value = this.httpResponse.getStreamedValues().get(parseExpression.getKey());
         } else if (parseExpression.getSource() == ExpressionParser.Source.BODY && this.httpResponse.getBody() != null) {
-            value = ExpressionParser.extractValueByFormatAndExpression(this.httpResponse.getBody(), parseExpression.getFormat(), parseExpression.getKey());
+            if (parseExpression.getFormat() == ExpressionParser.Format.JSON) {
+                value = ExpressionParser.extractJsonValue(this.httpResponse::getJsonDocument, parseExpression.getKey());
+            } else {
+                value = ExpressionParser.extractValueByFormatAndExpression(this.httpResponse.getBody(), parseExpression.getFormat(), parseExpression.getKey());
+            }
         } else {
             throw new IllegalArgumentException("Invalid source " + parseExpression.getSource());
         }
         return value;
     }
 
-    private RequestSpecification setQueryParameters(RequestSpecification request) {
+    private String getTimeValue(String phase) {
+        // Milliseconds, phases the transport did not measure have no value
+        HttpTimings timings = this.httpResponse.getTimings();
+        if (phase == null) {
+            return timings != null ? HttpTimings.toMillis(timings.getTotal()) : String.valueOf(this.httpResponse.getTime());
+        }
+        if (timings == null) {
+            return null;
+        }
+        Long nanos = timings.get(HttpTimings.Phase.of(phase));
+        return nanos == null ? null : HttpTimings.toMillis(nanos);
+    }
+
+    private void printQueryParameters() {
         if (this.httpRequestSpec.getQueryParams() == null || this.httpRequestSpec.getQueryParams().isEmpty()) {
-            return request;
+            return;
         }
         Console.print(colorize("Request query", MAGENTA_TEXT(), BOLD()));
         for (Map.Entry<String, String> e : this.httpRequestSpec.getQueryParams().entrySet()) {
-            request = request.queryParam(e.getKey(), e.getValue());
             Log.debug("Request query parameter: {} : {}", e.getKey(), e.getValue());
             Console.print(colorize(e.getKey() + " : ", BOLD()), colorize(e.getValue()));
         }
         Console.print("");
-        return request;
     }
 
-    private RequestSpecification setHeaders(RequestSpecification request) {
+    private void printHeaders() {
         if (this.httpRequestSpec.getHeaders() == null || this.httpRequestSpec.getHeaders().isEmpty()) {
-            return request;
+            return;
         }
         Console.print(colorize("Request headers", MAGENTA_TEXT(), BOLD()));
         for (Map.Entry<String, String> e : this.httpRequestSpec.getHeaders().entrySet()) {
-            request = request.header(e.getKey(), e.getValue());
             Log.debug("Request header: {} : {}", e.getKey(), e.getValue());
             Console.print(colorize(e.getKey() + " : ", BOLD()), colorize(e.getValue()));
         }
         Console.print("");
-        return request;
     }
 
-    private RequestSpecification setFormData(RequestSpecification request) {
+    private void printFormData() {
         if (this.httpRequestSpec.getFormParams() == null || this.httpRequestSpec.getFormParams().isEmpty()) {
-            return request;
+            return;
         }
         Console.print(colorize("Request form body", MAGENTA_TEXT(), BOLD()));
         for (Map.Entry<String, Object> e : this.httpRequestSpec.getFormParams().entrySet()) {
-            request = request.formParam(e.getKey(), e.getValue());
             Log.debug("Form param: {} : {}", e.getKey(), e.getValue());
             Console.print(colorize(e.getKey() + " : ", BOLD()), colorize(e.getValue().toString()));
 
         }
         Console.print("");
-        return request;
     }
 
-    private RequestSpecification setBody(RequestSpecification request) {
+    private void printBody() {
         if (this.httpRequestSpec.getBody() == null) {
-            return request;
+            return;
         }
-        request = request.body(this.httpRequestSpec.getBody());
         Console.print(colorize("Request body", MAGENTA_TEXT(), BOLD()));
         Console.print(colorize(this.httpRequestSpec.getBody()));
         Log.debug("Request Body : {}", this.httpRequestSpec.getBody());
         Console.print("");
-        return request;
     }
 
     private void logRequest() {
@@ -344,5 +504,12 @@ public class HttpRequestStep extends Step {
         return this.isExecutionSuccess;
     }
 
+    @Override
+    public void release() {
+        if (this.httpResponse != null) {
+            this.httpResponse.release();
+        }
+    }
+
 
 }
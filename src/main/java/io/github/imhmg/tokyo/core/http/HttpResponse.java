@@ -1,30 +1,114 @@
 package io.github.imhmg.tokyo.core.http;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import io.github.imhmg.tokyo.commons.JsonStreamExtractor;
+import io.github.imhmg.tokyo.commons.Log;
 import io.restassured.http.Headers;
+import io.restassured.internal.support.Prettifier;
+import io.restassured.parsing.Parser;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @NoArgsConstructor
 public class HttpResponse {
 
+    public static final String STREAMED_BODY = "<body is not kept, json values were read while streaming>";
+
     private String body;
+    @Getter(AccessLevel.NONE)
     private String prettyBody;
+    private String contentType;
+    private String bodyFile;
+    private boolean truncated = false;
     private Headers headers = new Headers();
     private int status;
     private long time;
+    private HttpTimings timings;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DocumentContext jsonDocument;
+    private boolean streamed = false;
+    private Map<String, String> streamedValues = new HashMap<>();
 
     public HttpResponse(ExtractableResponse<Response> response) {
-        this.body = response.asString();
-        this.time = response.time();
-        this.prettyBody = response.asPrettyString();
-        this.headers = response.headers();
-        this.status = response.statusCode();
+        this(response.statusCode(), response.time(), response.headers(), response.contentType(), response.asString());
     }
 
+    public HttpResponse(ExtractableResponse<Response> response, Collection<String> jsonPaths) {
+        this(response.statusCode(), response.time(), response.headers(), response.asInputStream(), jsonPaths);
+    }
+
+    public HttpResponse(int status, long time, Headers headers, String contentType, String body) {
+        this.status = status;
+        this.time = time;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public HttpResponse(int status, long time, Headers headers, InputStream body, Collection<String> jsonPaths) {
+        // Body is streamed once for the given json paths and is not kept in memory
+        this.status = status;
+        this.time = time;
+        this.headers = headers;
+        this.streamed = true;
+        this.prettyBody = STREAMED_BODY;
+        try (InputStream stream = body) {
+            this.streamedValues = JsonStreamExtractor.extract(stream, jsonPaths);
+        } catch (Exception e) {
+            Log.error("Unable to read streamed response body : {}", e.getMessage());
+        }
+    }
+
+    public String getPrettyBody() {
+        // Pretty body is not kept, it is only built when the console or the report shows it
+        if (this.prettyBody != null || this.body == null || this.truncated) {
+            return this.prettyBody != null ? this.prettyBody : this.body;
+        }
+        try {
+            Parser parser = Parser.fromContentType(this.contentType);
+            return parser == null ? this.body : new Prettifier().prettify(this.body, parser);
+        } catch (Exception e) {
+            return this.body;
+        }
+    }
+
+    public synchronized DocumentContext getJsonDocument() {
+        // Body is parsed on first use and shared by every json expression of the step
+        if (this.jsonDocument == null) {
+            this.jsonDocument = JsonPath.parse(this.body);
+        }
+        return this.jsonDocument;
+    }
+
+    public synchronized void releaseJsonDocument() {
+        // Later lookups of the step values parse the body again
+        this.jsonDocument = null;
+    }
+
+    public synchronized void release() {
+        // Status, time and timings are kept for the results and metrics, the body is only in the report
+        this.body = null;
+        this.prettyBody = null;
+        this.jsonDocument = null;
+        this.streamedValues = new HashMap<>();
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+        releaseJsonDocument();
+    }
 
 }
@@ -45,9 +45,13 @@ public class HttpSpec {
     }
 
     public Map<String, String> getHeaders() {
+        addDefaultHeaders();
+        return headers;
+    }
+
+    public void addDefaultHeaders() {
         if(this.jsonBody != null && !this.headers.containsKey("Content-Type")) {
             this.headers.put("Content-Type", "application/json");
         }
-        return headers;
     }
 }
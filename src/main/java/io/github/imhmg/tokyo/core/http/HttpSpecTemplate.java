@@ -0,0 +1,138 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.FileReader;
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.commons.VariableParser;
+import io.github.imhmg.tokyo.commons.YamlParser;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Http spec file parsed once with its variables left as placeholders. Every step renders its
+ * own HttpSpec from the template, the file is not read or parsed again for each input row.
+ */
+@Getter
+public class HttpSpecTemplate {
+
+    private static final Map<String, HttpSpecTemplate> templates = new ConcurrentHashMap<>();
+
+    private final String ref;
+    private final String content;
+    private final List<String> variables;
+    private final HttpSpec spec;
+
+    private HttpSpecTemplate(String ref) {
+        Log.debug("Compile http spec file = {}", ref);
+        this.ref = ref;
+        this.content = FileReader.readFile(ref);
+        this.variables = Collections.unmodifiableList(VariableParser.parseVariables(content));
+        this.spec = compile(content);
+    }
+
+    public static HttpSpecTemplate of(String ref) {
+        if (ref == null) {
+            throw new RuntimeException("File name cannot be null");
+        }
+        return templates.computeIfAbsent(ref, HttpSpecTemplate::new);
+    }
+
+    public boolean isCompiled() {
+        return spec != null;
+    }
+
+    public Map<String, String> renderDefines(VariableParser.ValueProvider provider) {
+        // Defines are rendered before the other fields, so the rest of the spec can use them
+        if (!isCompiled()) {
+            HttpSpec spec = YamlParser.parse(VariableParser.replaceVariables(content, provider), HttpSpec.class);
+            return toStrings(spec.getDefine());
+        }
+        Map<String, String> resolved = new HashMap<>();
+        return toStrings(renderMap(spec.getDefine(), provider, resolved));
+    }
+
+    public HttpSpec render(VariableParser.ValueProvider provider) {
+        if (!isCompiled()) {
+            return YamlParser.parse(VariableParser.replaceVariables(content, provider), HttpSpec.class);
+        }
+        Map<String, String> resolved = new HashMap<>();
+        HttpSpec rendered = new HttpSpec();
+        rendered.setName(render(spec.getName(), provider, resolved));
+        rendered.setMethod(render(spec.getMethod(), provider, resolved));
+        rendered.setEndpoint(render(spec.getEndpoint(), provider, resolved));
+        rendered.setTextBody(render(spec.getTextBody(), provider, resolved));
+        rendered.setJsonBody(render(spec.getJsonBody(), provider, resolved));
+        rendered.setStatus(render(spec.getStatus(), provider, resolved));
+        rendered.setFormParams(renderMap(spec.getFormParams(), provider, resolved));
+        rendered.setDefine(renderMap(spec.getDefine(), provider, resolved));
+        rendered.setMultipartData(renderMap(spec.getMultipartData(), provider, resolved));
+        rendered.setOptions(renderMap(spec.getOptions(), provider, resolved));
+        rendered.setHeaders(renderMap(spec.getHeaders(), provider, resolved));
+        rendered.setQueryParams(renderMap(spec.getQueryParams(), provider, resolved));
+        rendered.setCaptures(renderMap(spec.getCaptures(), provider, resolved));
+        rendered.setAsserts(renderMap(spec.getAsserts(), provider, resolved));
+        return rendered;
+    }
+
+    private HttpSpec compile(String content) {
+        // Variables used in place of yaml structure cannot be parsed upfront, such files are rendered as text
+        try {
+            HttpSpec spec = YamlParser.parse(content, HttpSpec.class);
+            // Compiled spec is shared by all steps, headers are completed once so rendering never changes it
+            spec.addDefaultHeaders();
+            return spec;
+        } catch (Exception e) {
+            Log.debug("Unable to compile http spec file {}, file will be parsed for every step : {}", ref, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String render(String value, VariableParser.ValueProvider provider, Map<String, String> resolved) {
+        if (value == null || !value.contains("${")) {
+            return value;
+        }
+        return VariableParser.replaceVariables(value, provider, resolved);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Map<String, V> renderMap(Map<String, V> map, VariableParser.ValueProvider provider, Map<String, String> resolved) {
+        if (map == null) {
+            return null;
+        }
+        Map<String, V> rendered = new LinkedHashMap<>();
+        for (Map.Entry<String, V> e : map.entrySet()) {
+            rendered.put(render(e.getKey(), provider, resolved), (V) renderValue(e.getValue(), provider, resolved));
+        }
+        return rendered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object renderValue(Object value, VariableParser.ValueProvider provider, Map<String, String> resolved) {
+        if (value instanceof String) {
+            return render((String) value, provider, resolved);
+        }
+        if (value instanceof Map) {
+            return renderMap((Map<String, Object>) value, provider, resolved);
+        }
+        if (value instanceof List) {
+            List<Object> rendered = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                rendered.add(renderValue(item, provider, resolved));
+            }
+            return rendered;
+        }
+        return value;
+    }
+
+    private static Map<String, String> toStrings(Map<String, Object> map) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (map == null) {
+            return values;
+        }
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            values.put(e.getKey(), String.valueOf(e.getValue()));
+        }
+        return values;
+    }
+}
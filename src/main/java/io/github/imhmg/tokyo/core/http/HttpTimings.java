@@ -0,0 +1,120 @@
+package io.github.imhmg.tokyo.core.http;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time spent in each phase of a http request in nanoseconds. Phases a transport cannot measure
+ * are not set, phases skipped on a reused connection (dns, connect, tls) are zero.
+ */
+public class HttpTimings {
+
+    @Getter
+    public enum Phase {
+        DNS("dns"),
+        CONNECT("connect"),
+        TLS("tls"),
+        REQUEST_WRITE("requestWrite"),
+        FIRST_BYTE("firstByte"),
+        // From the start of the request until the response headers, for transports that cannot split the phases before
+        HEADERS("headers"),
+        DOWNLOAD("download");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+
+        public static Phase of(String key) {
+            for (Phase phase : values()) {
+                if (phase.key.equalsIgnoreCase(key)) {
+                    return phase;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Timings of the request sent by the current thread, set by transports sending on the caller thread
+    private static final ThreadLocal<HttpTimings> current = new ThreadLocal<>();
+
+    private final Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+    private final long start = System.nanoTime();
+    private long responseStart;
+    private boolean responseStarted = false;
+    @Getter
+    private long total;
+
+    public static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    public static HttpTimings start(Phase... measured) {
+        HttpTimings timings = new HttpTimings();
+        for (Phase phase : measured) {
+            timings.phases.put(phase, 0L);
+        }
+        current.set(timings);
+        return timings;
+    }
+
+    public static HttpTimings finish() {
+        HttpTimings timings = current.get();
+        current.remove();
+        if (timings != null) {
+            timings.complete();
+        }
+        return timings;
+    }
+
+    static void record(Phase phase, long nanos) {
+        HttpTimings timings = current.get();
+        if (timings != null) {
+            timings.add(phase, nanos);
+        }
+    }
+
+    static void recordResponseStart() {
+        HttpTimings timings = current.get();
+        if (timings != null) {
+            timings.responseStarted();
+        }
+    }
+
+    public void add(Phase phase, long nanos) {
+        // Redirects and retries add up
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    public void responseStarted() {
+        this.responseStart = System.nanoTime();
+        this.responseStarted = true;
+    }
+
+    public void complete() {
+        // Download is the time from the response headers until the body was read
+        long now = System.nanoTime();
+        if (responseStarted) {
+            add(Phase.DOWNLOAD, now - responseStart);
+            responseStarted = false;
+        }
+        this.total = now - start;
+    }
+
+    public Long get(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public Map<String, Long> getPhases() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<Phase, Long> e : phases.entrySet()) {
+            values.put(e.getKey().getKey(), e.getValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.imhmg.tokyo.core.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends http requests of steps. Implementations are shared by all steps and must be thread safe.
+ * Custom transports are selected with the TKY_HTTP_TRANSPORT config by class name and need a
+ * public no argument constructor.
+ */
+public interface HttpTransport {
+
+    HttpResponse send(HttpRequest request);
+
+    default CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+        return CompletableFuture.supplyAsync(() -> send(request));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.Log;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HttpTransports {
+
+    public static final String REST_ASSURED = "restassured";
+    public static final String JAVA = "java";
+
+    private static final Map<String, HttpTransport> transports = new ConcurrentHashMap<>();
+
+    public static HttpTransport get(String name) {
+        if (StringUtils.isBlank(name)) {
+            name = REST_ASSURED;
+        }
+        return transports.computeIfAbsent(name.trim(), HttpTransports::create);
+    }
+
+    private static HttpTransport create(String name) {
+        Log.debug("Initialize http transport = {}", name);
+        if (REST_ASSURED.equalsIgnoreCase(name)) {
+            return new RestAssuredTransport();
+        }
+        if (JAVA.equalsIgnoreCase(name)) {
+            return new JavaHttpTransport();
+        }
+        try {
+            Class<?> clazz = Class.forName(name);
+            return (HttpTransport) clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            Log.error("Error while initializing http transport : {}", name);
+            throw new IllegalArgumentException("Invalid http transport " + name + ". Transport should be restassured, java or a HttpTransport class name", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport on the JDK http client. Clients are shared by all steps with the same ssl and proxy
+ * options, requests are sent asynchronously and https requests use HTTP/2 when the server supports it.
+ */
+public class JavaHttpTransport implements HttpTransport {
+
+    // Headers managed by the JDK client, setting them on a request is not allowed
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+
+    @Override
+    public HttpResponse send(HttpRequest request) {
+        try {
+            return sendAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+        java.net.http.HttpRequest httpRequest = createRequest(request);
+        HttpClient client = getClient(request);
+        // The JDK client does not expose connection phases, headers includes dns, connect, tls, write and first byte
+        HttpTimings timings = new HttpTimings();
+        long start = System.nanoTime();
+        if (request.getStreamPaths() != null) {
+            return client.sendAsync(httpRequest, timed(java.net.http.HttpResponse.BodyHandlers.ofInputStream(), timings, start)).thenApply(response -> {
+                Headers headers = toHeaders(response);
+                HttpResponse httpResponse = new HttpResponse(response.statusCode(), 0, headers, response.body(), request.getStreamPaths());
+                timings.complete();
+                httpResponse.setTime(elapsed(start));
+                httpResponse.setTimings(timings);
+                return httpResponse;
+            });
+        }
+        return client.sendAsync(httpRequest, timed(java.net.http.HttpResponse.BodyHandlers.ofString(), timings, start)).thenApply(response -> {
+            timings.complete();
+            Headers headers = toHeaders(response);
+            HttpResponse httpResponse = new HttpResponse(response.statusCode(), elapsed(start), headers, headers.getValue("Content-Type"), response.body());
+            httpResponse.setTimings(timings);
+            return httpResponse;
+        });
+    }
+
+    private static <T> java.net.http.HttpResponse.BodyHandler<T> timed(java.net.http.HttpResponse.BodyHandler<T> handler, HttpTimings timings, long start) {
+        // Body handler is called when the status line and headers are received
+        return responseInfo -> {
+            timings.add(HttpTimings.Phase.HEADERS, System.nanoTime() - start);
+            timings.responseStarted();
+            return handler.apply(responseInfo);
+        };
+    }
+
+    private java.net.http.HttpRequest createRequest(HttpRequest request) {
+        URI uri = createUri(request);
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(uri).version(getVersion(request, uri));
+        boolean hasContentType = false;
+        if (request.getHeaders() != null) {
+            for (Map.Entry<String, String> e : request.getHeaders().entrySet()) {
+                if (RESTRICTED_HEADERS.contains(e.getKey().toLowerCase(Locale.ROOT))) {
+                    Log.debug("Header {} is set by the http client", e.getKey());
+                    continue;
+                }
+                hasContentType |= e.getKey().equalsIgnoreCase("Content-Type");
+                builder.header(e.getKey(), e.getValue());
+            }
+        }
+        String body = request.getBody();
+        if (request.getFormParams() != null && !request.getFormParams().isEmpty()) {
+            body = encode(request.getFormParams());
+            if (!hasContentType) {
+                builder.header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
+            }
+        }
+        builder.method(request.getMethod().toUpperCase(Locale.ROOT), body == null
+                ? java.net.http.HttpRequest.BodyPublishers.noBody()
+                : java.net.http.HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        return builder.build();
+    }
+
+    private static HttpClient.Version getVersion(HttpRequest request, URI uri) {
+        // Plain http uses HTTP/1.1 unless version 2 is set, so requests do not carry an h2c upgrade
+        if (StringUtils.isNotBlank(request.getHttpVersion())) {
+            switch (request.getHttpVersion().trim()) {
+                case "1.1":
+                    return HttpClient.Version.HTTP_1_1;
+                case "2":
+                    return HttpClient.Version.HTTP_2;
+                default:
+                    throw new IllegalArgumentException("Invalid http version " + request.getHttpVersion() + ". Http version should be 1.1 or 2");
+            }
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+    }
+
+    private URI createUri(HttpRequest request) {
+        if (request.getQueryParams() == null || request.getQueryParams().isEmpty()) {
+            return URI.create(request.getEndpoint());
+        }
+        String separator = request.getEndpoint().contains("?") ? "&" : "?";
+        return URI.create(request.getEndpoint() + separator + encode(request.getQueryParams()));
+    }
+
+    private String encode(Map<String, ?> params) {
+        StringJoiner joiner = new StringJoiner("&");
+        for (Map.Entry<String, ?> e : params.entrySet()) {
+            joiner.add(URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(String.valueOf(e.getValue()), StandardCharsets.UTF_8));
+        }
+        return joiner.toString();
+    }
+
+    private HttpClient getClient(HttpRequest request) {
+        String key = request.isSslDisabled() + "|" + request.getProxyHost() + "|" + request.getProxyPort() + "|" + request.getProxyUsername();
+        return clients.computeIfAbsent(key, k -> createClient(request));
+    }
+
+    protected HttpClient.Builder createClientBuilder(HttpRequest request) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (request.isSslDisabled()) {
+            builder.sslContext(trustAll());
+        }
+        if (request.getProxyHost() != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(request.getProxyHost(), request.getProxyPort())));
+            if (request.getProxyUsername() != null) {
+                String username = request.getProxyUsername();
+                char[] password = request.getProxyPassword() == null ? new char[0] : request.getProxyPassword().toCharArray();
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        return new PasswordAuthentication(username, password);
+                    }
+                });
+            }
+        }
+        return builder;
+    }
+
+    private HttpClient createClient(HttpRequest request) {
+        return createClientBuilder(request).build();
+    }
+
+    private static SSLContext trustAll() {
+        // Certificates are not verified when ssl verification is disabled, same as relaxed https validation
+        TrustManager[] trustManagers = new TrustManager[]{new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }};
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, trustManagers, new java.security.SecureRandom());
+            return context;
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to disable ssl verification", e);
+        }
+    }
+
+    private static Headers toHeaders(java.net.http.HttpResponse<?> response) {
+        List<Header> headers = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : response.headers().map().entrySet()) {
+            if (e.getKey().startsWith(":")) {
+                // HTTP/2 pseudo headers
+                continue;
+            }
+            for (String value : e.getValue()) {
+                headers.add(new Header(e.getKey(), value));
+            }
+        }
+        return new Headers(headers);
+    }
+
+    private static long elapsed(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
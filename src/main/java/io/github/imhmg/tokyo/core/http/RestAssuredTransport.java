@@ -0,0 +1,74 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.ProxySpecification;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Map;
+
+/**
+ * Default transport, every request is sent with a RestAssured request specification.
+ */
+public class RestAssuredTransport implements HttpTransport {
+
+    @Override
+    public HttpResponse send(HttpRequest httpRequest) {
+        RequestSpecification request;
+        if (httpRequest.getConnectionPool() != null) {
+            ConnectionPool pool = httpRequest.getConnectionPool();
+            pool.beforeRequest();
+            request = RestAssured.given().config(pool.getConfig());
+        } else {
+            // Client records dns, connect, tls, write and first byte timings of every request, the global config is kept
+            RestAssuredConfig config = RestAssured.config();
+            request = RestAssured.given().config(config.httpClient(config.getHttpClientConfig().httpClientFactory(TimedHttpClient::new)));
+        }
+        if (httpRequest.isSslDisabled()) {
+            request = request.relaxedHTTPSValidation();
+        }
+        if (httpRequest.getProxyHost() != null) {
+            ProxySpecification proxySpecification = ProxySpecification.host(httpRequest.getProxyHost())
+                    .withPort(httpRequest.getProxyPort());
+            if (httpRequest.getProxyUsername() != null) {
+                proxySpecification = proxySpecification.withAuth(httpRequest.getProxyUsername(), httpRequest.getProxyPassword());
+            }
+            request = request.proxy(proxySpecification);
+        }
+        if (httpRequest.getQueryParams() != null) {
+            for (Map.Entry<String, String> e : httpRequest.getQueryParams().entrySet()) {
+                request = request.queryParam(e.getKey(), e.getValue());
+            }
+        }
+        if (httpRequest.getHeaders() != null) {
+            for (Map.Entry<String, String> e : httpRequest.getHeaders().entrySet()) {
+                request = request.header(e.getKey(), e.getValue());
+            }
+        }
+        if (httpRequest.getFormParams() != null) {
+            for (Map.Entry<String, Object> e : httpRequest.getFormParams().entrySet()) {
+                request = request.formParam(e.getKey(), e.getValue());
+            }
+        }
+        if (httpRequest.getBody() != null) {
+            request = request.body(httpRequest.getBody());
+        }
+        HttpTimings.start(HttpTimings.Phase.DNS, HttpTimings.Phase.CONNECT, HttpTimings.Phase.TLS);
+        HttpResponse httpResponse = null;
+        try {
+            Response response = request.when().request(httpRequest.getMethod(), httpRequest.getEndpoint());
+            if (httpRequest.getStreamPaths() == null) {
+                httpResponse = new HttpResponse(response.then().extract());
+            } else {
+                httpResponse = new HttpResponse(response.then().extract(), httpRequest.getStreamPaths());
+            }
+            return httpResponse;
+        } finally {
+            HttpTimings timings = HttpTimings.finish();
+            if (httpResponse != null) {
+                httpResponse.setTimings(timings);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.imhmg.tokyo.core.http;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+
+/**
+ * Http client of the RestAssured transport that records the phases of every request in the
+ * {@link HttpTimings} of the sending thread.
+ */
+@SuppressWarnings("deprecation")
+public class TimedHttpClient extends DefaultHttpClient {
+
+    public TimedHttpClient() {
+        super();
+    }
+
+    public TimedHttpClient(ClientConnectionManager manager) {
+        super(manager);
+    }
+
+    @Override
+    protected ClientConnectionManager createClientConnectionManager() {
+        return new BasicClientConnectionManager(SchemeRegistryFactory.createDefault()) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new TimedConnectionOperator(registry);
+            }
+        };
+    }
+
+    @Override
+    protected HttpRequestExecutor createRequestExecutor() {
+        return new TimedRequestExecutor();
+    }
+
+    static class TimedConnectionOperator extends DefaultClientConnectionOperator {
+
+        TimedConnectionOperator(SchemeRegistry registry) {
+            super(registry);
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local, HttpContext context, HttpParams params) throws IOException {
+            // Same as the default operator, except tls sockets are connected plain first, so connect and handshake are timed apart
+            SchemeRegistry registry = context == null ? null : (SchemeRegistry) context.getAttribute(ClientContext.SCHEME_REGISTRY);
+            Scheme scheme = (registry == null ? schemeRegistry : registry).getScheme(target.getSchemeName());
+            SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+            boolean layered = factory instanceof SchemeLayeredSocketFactory;
+            SchemeSocketFactory connectFactory = layered ? PlainSocketFactory.getSocketFactory() : factory;
+            InetAddress[] addresses = resolveHostname(target.getHostName());
+            int port = scheme.resolvePort(target.getPort());
+            for (int i = 0; i < addresses.length; i++) {
+                boolean last = i == addresses.length - 1;
+                Socket socket = connectFactory.createSocket(params);
+                conn.opening(socket, target);
+                InetSocketAddress remoteAddress = new HttpInetSocketAddress(target, addresses[i], port);
+                InetSocketAddress localAddress = local == null ? null : new InetSocketAddress(local, 0);
+                try {
+                    long start = System.nanoTime();
+                    Socket connected = connectFactory.connectSocket(socket, remoteAddress, localAddress, params);
+                    HttpTimings.record(HttpTimings.Phase.CONNECT, System.nanoTime() - start);
+                    if (layered) {
+                        start = System.nanoTime();
+                        connected = ((SchemeLayeredSocketFactory) factory).createLayeredSocket(connected, target.getHostName(), port, params);
+                        HttpTimings.record(HttpTimings.Phase.TLS, System.nanoTime() - start);
+                    }
+                    if (connected != socket) {
+                        socket = connected;
+                        conn.opening(socket, target);
+                    }
+                    prepareSocket(socket, context, params);
+                    conn.openCompleted(factory.isSecure(socket), params);
+                    return;
+                } catch (ConnectException | ConnectTimeoutException e) {
+                    if (last) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void updateSecureConnection(OperatedClientConnection conn, HttpHost target, HttpContext context, HttpParams params) throws IOException {
+            // Tls over a proxy tunnel
+            long start = System.nanoTime();
+            super.updateSecureConnection(conn, target, context, params);
+            HttpTimings.record(HttpTimings.Phase.TLS, System.nanoTime() - start);
+        }
+
+        @Override
+        protected InetAddress[] resolveHostname(String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return super.resolveHostname(host);
+            } finally {
+                HttpTimings.record(HttpTimings.Phase.DNS, System.nanoTime() - start);
+            }
+        }
+    }
+
+    static class TimedRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        protected org.apache.http.HttpResponse doSendRequest(org.apache.http.HttpRequest request, HttpClientConnection conn, HttpContext context) throws IOException, HttpException {
+            long start = System.nanoTime();
+            org.apache.http.HttpResponse response = super.doSendRequest(request, conn, context);
+            HttpTimings.record(HttpTimings.Phase.REQUEST_WRITE, System.nanoTime() - start);
+            return response;
+        }
+
+        @Override
+        protected org.apache.http.HttpResponse doReceiveResponse(org.apache.http.HttpRequest request, HttpClientConnection conn, HttpContext context) throws HttpException, IOException {
+            // Time waiting for the status line and headers after the request was written
+            long start = System.nanoTime();
+            org.apache.http.HttpResponse response = super.doReceiveResponse(request, conn, context);
+            HttpTimings.record(HttpTimings.Phase.FIRST_BYTE, System.nanoTime() - start);
+            HttpTimings.recordResponseStart();
+            return response;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.imhmg.tokyo.core.load;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.spec.LoadSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open workload model, iterations are started on a fixed schedule regardless of how long
+ * earlier iterations take. Iteration and step latencies are measured from the intended start
+ * time, so a slow server is not hidden by a slower request rate (coordinated omission). When all
+ * users are busy at the intended start the iteration is dropped instead of delaying the schedule.
+ */
+public class ArrivalRateRunner {
+
+    private static final long DEFAULT_LATE_THRESHOLD = 10;
+
+    private final Scenario scenario;
+    private final LoadSpec load;
+    private final DataFeeder feeder;
+
+    public ArrivalRateRunner(Scenario scenario, DataFeeder feeder) {
+        this.scenario = scenario;
+        this.load = scenario.getSpec().getLoad();
+        this.feeder = feeder;
+    }
+
+    public Metrics run() {
+        Metrics metrics = new Metrics(scenario.getSpec().getSteps());
+        Semaphore users = new Semaphore(load.getUsers());
+        long lateThreshold = TimeUnit.MILLISECONDS.toNanos(load.getLateThreshold() == null ? DEFAULT_LATE_THRESHOLD : load.getLateThreshold());
+        List<CompletableFuture<Void>> running = Collections.synchronizedList(new ArrayList<>());
+
+        metrics.start();
+        long start = System.nanoTime();
+        long stageStart = 0;
+        for (LoadSpec.Stage stage : getStages()) {
+            Log.debug("Start arrival rate stage, rate = {}/s, duration = {} s", stage.getRate(), stage.getDuration());
+            long interval = TimeUnit.SECONDS.toNanos(1) / stage.getRate();
+            long count = stage.getRate() * stage.getDuration();
+            for (long i = 0; i < count; i++) {
+                long intended = start + stageStart + i * interval;
+                waitUntil(intended);
+                if (!users.tryAcquire()) {
+                    metrics.iterationDropped();
+                    continue;
+                }
+                CompletableFuture<Void> iteration = scenario.getEngine().submit(() -> {
+                    try {
+                        runIteration(intended, lateThreshold, metrics);
+                    } finally {
+                        users.release();
+                    }
+                    return null;
+                });
+                running.add(iteration);
+                iteration.whenComplete((r, e) -> running.remove(iteration));
+            }
+            stageStart += TimeUnit.SECONDS.toNanos(stage.getDuration());
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+        metrics.stop();
+        return metrics;
+    }
+
+    private void runIteration(long intended, long lateThreshold, Metrics metrics) {
+        long actual = System.nanoTime();
+        scenario.runIteration(feeder.next(), metrics, TimeUnit.NANOSECONDS.toMillis(actual - intended));
+        long end = System.nanoTime();
+        metrics.recordScheduledIteration(
+                TimeUnit.NANOSECONDS.toMillis(end - intended),
+                TimeUnit.NANOSECONDS.toMillis(end - actual),
+                actual - intended > lateThreshold
+        );
+    }
+
+    private List<LoadSpec.Stage> getStages() {
+        if (load.getStages() != null && !load.getStages().isEmpty()) {
+            return load.getStages();
+        }
+        List<LoadSpec.Stage> stages = new ArrayList<>();
+        stages.add(new LoadSpec.Stage(load.getRate(), load.getDuration()));
+        return stages;
+    }
+
+    private void waitUntil(long nanoTime) {
+        long wait;
+        while ((wait = nanoTime - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
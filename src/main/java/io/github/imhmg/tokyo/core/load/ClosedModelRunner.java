@@ -0,0 +1,74 @@
+package io.github.imhmg.tokyo.core.load;
+
+import io.github.imhmg.tokyo.commons.Log;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.spec.LoadSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Closed workload model, a fixed number of virtual users loop over the scenario steps.
+ * Each user starts after its share of the ramp up period and stops when the duration
+ * elapses or it completed its iterations.
+ */
+public class ClosedModelRunner {
+
+    private final Scenario scenario;
+    private final LoadSpec load;
+    private final DataFeeder feeder;
+
+    public ClosedModelRunner(Scenario scenario, DataFeeder feeder) {
+        this.scenario = scenario;
+        this.load = scenario.getSpec().getLoad();
+        this.feeder = feeder;
+    }
+
+    public Metrics run() {
+        Metrics metrics = new Metrics(scenario.getSpec().getSteps());
+        int users = load.getUsers();
+        long rampUp = load.getRampUp() == null ? 0 : load.getRampUp() * 1000;
+        int iterations = getIterationsPerUser();
+
+        metrics.start();
+        long start = System.currentTimeMillis();
+        long deadline = load.getDuration() == null ? Long.MAX_VALUE : start + load.getDuration() * 1000;
+        Log.debug("Start closed load, users = {}, ramp up = {} ms, iterations = {}", users, rampUp, iterations);
+
+        List<CompletableFuture<Void>> virtualUsers = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            long startAt = start + rampUp * user / users;
+            virtualUsers.add(scenario.getEngine().submit(() -> {
+                runUser(startAt, deadline, iterations, metrics);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(virtualUsers.toArray(new CompletableFuture[0])).join();
+        metrics.stop();
+        return metrics;
+    }
+
+    private void runUser(long startAt, long deadline, int iterations, Metrics metrics) {
+        try {
+            long wait = startAt - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+            scenario.runIteration(feeder.next(), metrics);
+        }
+    }
+
+    private int getIterationsPerUser() {
+        if (load.getIterations() != null) {
+            return load.getIterations();
+        }
+        return load.getDuration() == null ? 1 : Integer.MAX_VALUE;
+    }
+}
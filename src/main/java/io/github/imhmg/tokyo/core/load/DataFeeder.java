@@ -0,0 +1,48 @@
+package io.github.imhmg.tokyo.core.load;
+
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+public class DataFeeder implements Closeable {
+
+    private final Iterable<DataSpec> inputs;
+    private Iterator<DataSpec> iterator;
+
+    public DataFeeder(Iterable<DataSpec> inputs) {
+        if (inputs == null) {
+            throw new IllegalArgumentException("Data feeder requires at least one input");
+        }
+        this.inputs = inputs;
+        this.iterator = inputs.iterator();
+        if (!this.iterator.hasNext()) {
+            throw new IllegalArgumentException("Data feeder requires at least one input");
+        }
+    }
+
+    public synchronized DataSpec next() {
+        // Circular feed, inputs are read again from the start once every row has been handed out
+        if (!iterator.hasNext()) {
+            close(iterator);
+            iterator = inputs.iterator();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public synchronized void close() {
+        close(iterator);
+    }
+
+    private void close(Iterator<DataSpec> iterator) {
+        if (iterator instanceof Closeable) {
+            try {
+                ((Closeable) iterator).close();
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to close inputs", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import io.github.imhmg.tokyo.commons.JsonParser;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Step latencies of a run kept as the reference for later runs. A step is compared with a
+ * Mann-Whitney U test on both histograms, it regressed when it is significantly slower and its
+ * p50 or p95 grew more than the tolerance.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class Baseline {
+
+    public static final double DEFAULT_TOLERANCE = 10;
+    public static final String REGRESSION = "regression";
+    public static final String IMPROVEMENT = "improvement";
+    public static final String UNCHANGED = "unchanged";
+    public static final String NEW = "new";
+    public static final String INSUFFICIENT = "insufficient";
+
+    private static final double SIGNIFICANCE = 0.05;
+    private static final int MIN_SAMPLES = 5;
+
+    private String date;
+    private Map<String, StepBaseline> steps = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class StepBaseline {
+        private String name;
+        private long count;
+        private long errors;
+        private double mean;
+        private long p50;
+        private long p95;
+        // Non empty histogram buckets as [lowest value, highest value, count]
+        private List<long[]> buckets = new ArrayList<>();
+    }
+
+    @Getter
+    public static class Delta {
+        private final String id;
+        private final String name;
+        private final long count;
+        private final long baselineCount;
+        private final long p50;
+        private final long baselineP50;
+        private final long p95;
+        private final long baselineP95;
+        private final double mean;
+        private final double baselineMean;
+        private final Double pValue;
+        private final String status;
+
+        Delta(StepMetrics step, StepBaseline baseline, Double pValue, String status) {
+            this.id = step.getId();
+            this.name = step.getName();
+            this.count = step.getHistogram().getCount();
+            this.p50 = step.getHistogram().getValueAtPercentile(50);
+            this.p95 = step.getHistogram().getValueAtPercentile(95);
+            this.mean = step.getHistogram().getMean();
+            this.baselineCount = baseline == null ? 0 : baseline.getCount();
+            this.baselineP50 = baseline == null ? 0 : baseline.getP50();
+            this.baselineP95 = baseline == null ? 0 : baseline.getP95();
+            this.baselineMean = baseline == null ? 0 : baseline.getMean();
+            this.pValue = pValue;
+            this.status = status;
+        }
+
+        public double getP50Change() {
+            return change(p50, baselineP50);
+        }
+
+        public double getP95Change() {
+            return change(p95, baselineP95);
+        }
+
+        public double getMeanChange() {
+            return change(mean, baselineMean);
+        }
+    }
+
+    public static Baseline of(Metrics metrics) {
+        Baseline baseline = new Baseline();
+        baseline.setDate(new SimpleDateFormat("yyyy/MM/dd HH:mm:ss").format(new Date()));
+        for (StepMetrics step : metrics.getSteps().values()) {
+            LatencyHistogram histogram = step.getHistogram();
+            StepBaseline s = new StepBaseline();
+            s.setName(step.getName());
+            s.setCount(histogram.getCount());
+            s.setErrors(step.getErrorCount());
+            s.setMean(histogram.getMean());
+            s.setP50(histogram.getValueAtPercentile(50));
+            s.setP95(histogram.getValueAtPercentile(95));
+            s.setBuckets(histogram.getBuckets());
+            baseline.getSteps().put(step.getId(), s);
+        }
+        return baseline;
+    }
+
+    public static Baseline read(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return JsonParser.fromJson(Files.readString(file.toPath(), StandardCharsets.UTF_8), Baseline.class);
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Unable to read baseline " + path, e);
+        }
+    }
+
+    public void write(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        File temp = new File(path + ".tmp");
+        try {
+            Files.writeString(temp.toPath(), JsonParser.toJson(this), StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write baseline " + path, e);
+        }
+    }
+
+    public List<Delta> compare(Metrics metrics, double tolerance) {
+        List<Delta> deltas = new ArrayList<>();
+        for (StepMetrics step : metrics.getSteps().values()) {
+            StepBaseline baseline = steps.get(step.getId());
+            if (baseline == null) {
+                deltas.add(new Delta(step, null, null, NEW));
+                continue;
+            }
+            if (step.getHistogram().getCount() < MIN_SAMPLES || baseline.getCount() < MIN_SAMPLES) {
+                deltas.add(new Delta(step, baseline, null, INSUFFICIENT));
+                continue;
+            }
+            double z = mannWhitneyZ(step.getHistogram().getBuckets(), baseline.getBuckets());
+            double pValue = Math.min(1, 2 * (1 - normalCdf(Math.abs(z))));
+            double p50Change = change(step.getHistogram().getValueAtPercentile(50), baseline.getP50());
+            double p95Change = change(step.getHistogram().getValueAtPercentile(95), baseline.getP95());
+            String status = UNCHANGED;
+            if (pValue < SIGNIFICANCE && z > 0 && (p50Change > tolerance || p95Change > tolerance)) {
+                status = REGRESSION;
+            } else if (pValue < SIGNIFICANCE && z < 0 && (p50Change < -tolerance || p95Change < -tolerance)) {
+                status = IMPROVEMENT;
+            }
+            deltas.add(new Delta(step, baseline, pValue, status));
+        }
+        return deltas;
+    }
+
+    static double mannWhitneyZ(List<long[]> current, List<long[]> baseline) {
+        // Both histograms use the same buckets, values in a bucket are ties. Positive when current is slower
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        long n1 = 0;
+        long n2 = 0;
+        for (long[] bucket : current) {
+            counts.computeIfAbsent(bucket[0], k -> new long[2])[0] += bucket[2];
+            n1 += bucket[2];
+        }
+        for (long[] bucket : baseline) {
+            counts.computeIfAbsent(bucket[0], k -> new long[2])[1] += bucket[2];
+            n2 += bucket[2];
+        }
+        double n = n1 + n2;
+        double rank = 0;
+        double rankSum = 0;
+        double ties = 0;
+        for (long[] c : counts.values()) {
+            double t = c[0] + c[1];
+            rankSum += c[0] * (rank + (t + 1) / 2);
+            rank += t;
+            ties += t * t * t - t;
+        }
+        double u = rankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * n2 / 2.0;
+        double variance = n1 * n2 / 12.0 * ((n + 1) - ties / (n * (n - 1)));
+        if (variance <= 0) {
+            return 0;
+        }
+        double diff = u - mean;
+        // Continuity correction
+        diff = diff > 0 ? Math.max(0, diff - 0.5) : Math.min(0, diff + 0.5);
+        return diff / Math.sqrt(variance);
+    }
+
+    static double normalCdf(double z) {
+        // Abramowitz and Stegun 7.1.26
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    private static double change(double current, double baseline) {
+        if (baseline == 0) {
+            return current == 0 ? 0 : 100;
+        }
+        return (current - baseline) * 100 / baseline;
+    }
+}
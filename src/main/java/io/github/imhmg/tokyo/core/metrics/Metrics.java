@@ -0,0 +1,97 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class Metrics {
+
+    private final Map<String, StepMetrics> steps;
+    private final AtomicLong iterations = new AtomicLong();
+    private final LatencyHistogram iterationLatency = new LatencyHistogram();
+    private final LatencyHistogram iterationServiceTime = new LatencyHistogram();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong late = new AtomicLong();
+    private final Timeline timeline = new Timeline();
+    private volatile long startedAt;
+    private volatile long endedAt;
+
+    public Metrics(List<StepSpec> stepSpecs) {
+        // Steps are registered upfront so lookups never mutate the map while users are running
+        Map<String, StepMetrics> steps = new LinkedHashMap<>();
+        for (StepSpec spec : stepSpecs) {
+            steps.put(spec.getId(), new StepMetrics(spec.getId(), spec.getName()));
+        }
+        this.steps = Collections.unmodifiableMap(steps);
+    }
+
+    public void start() {
+        if (this.startedAt == 0) {
+            this.startedAt = System.currentTimeMillis();
+        }
+    }
+
+    public void stop() {
+        if (this.startedAt != 0 && this.endedAt == 0) {
+            this.endedAt = System.currentTimeMillis();
+        }
+    }
+
+    public void record(Step step) {
+        record(step, 0);
+    }
+
+    public void record(Step step, long delay) {
+        // Delay is how late the iteration started, it is added so step latencies are not coordinated omission
+        StepMetrics metrics = steps.get(step.getSpec().getId());
+        if (metrics == null) {
+            return;
+        }
+        boolean passed = step.getFailure() == null && step.isPassed();
+        metrics.record(passed ? step.getTime() : 0, delay, passed);
+        timeline.record(getElapsed(), passed);
+    }
+
+    public void recordFailure(StepSpec spec) {
+        StepMetrics metrics = steps.get(spec.getId());
+        if (metrics != null) {
+            metrics.record(0, false);
+            timeline.record(getElapsed(), false);
+        }
+    }
+
+    public void iterationCompleted() {
+        iterations.incrementAndGet();
+    }
+
+    public void recordScheduledIteration(long latency, long serviceTime, boolean isLate) {
+        // Latency is measured from the intended start, service time from the actual start
+        iterationLatency.record(latency);
+        iterationServiceTime.record(serviceTime);
+        if (isLate) {
+            late.incrementAndGet();
+        }
+    }
+
+    public void iterationDropped() {
+        dropped.incrementAndGet();
+    }
+
+    public LatencyHistogram getLatency() {
+        // Latencies of every step together
+        LatencyHistogram latency = new LatencyHistogram();
+        for (StepMetrics step : steps.values()) {
+            latency.merge(step.getHistogram());
+        }
+        return latency;
+    }
+
+    public long getElapsed() {
+        long end = endedAt == 0 ? System.currentTimeMillis() : endedAt;
+        return startedAt == 0 ? 0 : end - startedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Getter
+public class StepMetrics {
+
+    private final String id;
+    private final String name;
+    // Latency from the intended start of the step, the same as the service time unless the iteration started late
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public StepMetrics(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public void record(long time, boolean passed) {
+        record(time, 0, passed);
+    }
+
+    public void record(long time, long delay, boolean passed) {
+        if (passed) {
+            histogram.record(time + delay);
+            serviceTime.record(time);
+        } else {
+            errors.increment();
+        }
+    }
+
+    public long getCount() {
+        return histogram.getCount() + errors.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public double getErrorRate() {
+        long count = getCount();
+        return count == 0 ? 0 : errors.sum() * 100.0 / count;
+    }
+
+    public double getThroughput(long elapsedMillis) {
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return getCount() * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import io.github.imhmg.tokyo.core.spec.ThresholdSpec;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Checks scenario thresholds against the metrics of every row and iteration once a run ended.
+ * Latency is in ms, error rate in percent and throughput in requests per second.
+ */
+public class Thresholds {
+
+    @Getter
+    public static class Result {
+        private final ThresholdSpec spec;
+        private final double actual;
+        private final long count;
+        private final boolean passed;
+
+        Result(ThresholdSpec spec, double actual, long count) {
+            this.spec = spec;
+            this.actual = actual;
+            this.count = count;
+            this.passed = count > 0 && (spec.getMax() == null || actual <= spec.getMax())
+                    && (spec.getMin() == null || actual >= spec.getMin());
+        }
+
+        public String getName() {
+            return spec.getMetric() + (spec.getStep() == null ? "" : " of " + spec.getStep());
+        }
+
+        public String getExpected() {
+            List<String> limits = new ArrayList<>();
+            if (spec.getMin() != null) {
+                limits.add(">= " + format(spec.getMin()));
+            }
+            if (spec.getMax() != null) {
+                limits.add("<= " + format(spec.getMax()));
+            }
+            return String.join(" and ", limits);
+        }
+
+        public String getMessage() {
+            if (count == 0) {
+                return getName() + " has no requests, expected " + getExpected();
+            }
+            return getName() + " was " + format(actual) + ", expected " + getExpected();
+        }
+    }
+
+    public static List<Result> evaluate(List<ThresholdSpec> thresholds, Metrics metrics) {
+        List<Result> results = new ArrayList<>();
+        for (ThresholdSpec threshold : thresholds) {
+            results.add(evaluate(threshold, metrics));
+        }
+        return results;
+    }
+
+    public static Result evaluate(ThresholdSpec threshold, Metrics metrics) {
+        // Without a step the histograms and counters of all steps are combined
+        LatencyHistogram histogram = new LatencyHistogram();
+        long count = 0;
+        long errors = 0;
+        for (StepMetrics step : metrics.getSteps().values()) {
+            if (threshold.getStep() == null || threshold.getStep().equals(step.getId())) {
+                histogram.merge(step.getHistogram());
+                count += step.getCount();
+                errors += step.getErrorCount();
+            }
+        }
+        double actual;
+        switch (threshold.getMetric()) {
+            case ThresholdSpec.ERROR_RATE:
+                actual = count == 0 ? 0 : errors * 100.0 / count;
+                break;
+            case ThresholdSpec.THROUGHPUT:
+                actual = metrics.getElapsed() <= 0 ? 0 : count * 1000.0 / metrics.getElapsed();
+                break;
+            case "mean":
+                actual = histogram.getMean();
+                break;
+            case "max":
+                actual = histogram.getMax();
+                break;
+            default:
+                actual = histogram.getValueAtPercentile(Double.parseDouble(threshold.getMetric().substring(1)));
+        }
+        return new Result(threshold, actual, count);
+    }
+
+    static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finished requests and errors per second of a run, one entry per second with requests.
+ */
+public class Timeline {
+
+    private final ConcurrentSkipListMap<Long, LongAdder[]> seconds = new ConcurrentSkipListMap<>();
+
+    public void record(long elapsedMillis, boolean passed) {
+        LongAdder[] counts = seconds.computeIfAbsent(Math.max(0, elapsedMillis) / 1000, k -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        counts[0].increment();
+        if (!passed) {
+            counts[1].increment();
+        }
+    }
+
+    public List<long[]> getPoints() {
+        // Every second up to the last one as [second, requests, errors], seconds without requests are 0
+        List<long[]> points = new ArrayList<>();
+        if (seconds.isEmpty()) {
+            return points;
+        }
+        long last = seconds.lastKey();
+        for (long second = 0; second <= last; second++) {
+            LongAdder[] counts = seconds.get(second);
+            points.add(counts == null ? new long[]{second, 0, 0} : new long[]{second, counts[0].sum(), counts[1].sum()});
+        }
+        return points;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (Map.Entry<Long, LongAdder[]> e : seconds.entrySet()) {
+            count += e.getValue()[0].sum();
+        }
+        return count;
+    }
+}
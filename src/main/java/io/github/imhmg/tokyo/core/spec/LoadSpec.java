@@ -0,0 +1,38 @@
+package io.github.imhmg.tokyo.core.spec;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadSpec {
+    public static final String CLOSED = "closed";
+    public static final String ARRIVAL_RATE = "arrival-rate";
+
+    private String mode;
+    private Integer users;
+    private Long rampUp;
+    private Long duration;
+    private Integer iterations;
+    private Integer rate;
+    private List<Stage> stages;
+    private Long lateThreshold;
+
+    public boolean isArrivalRate() {
+        return ARRIVAL_RATE.equalsIgnoreCase(this.mode);
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Stage {
+        private Integer rate;
+        private Long duration;
+    }
+}
@@ -17,6 +17,8 @@ public class RunSpec {
     private List<String> configFiles = new ArrayList<>();
     private ReportSpec reportSpec = new ReportSpec();
     private Map<String, Object> configs = new HashMap<>();
+    private Integer parallel;
+    private LoadSpec load;
 
     public ReportSpec getReportSpec() {
         if(this.reportSpec == null) {
@@ -36,6 +38,18 @@ public class RunSpec {
         private String title;
         private String user;
         private Completion completion;
+        // Response bodies above this size in KB are truncated or spilled to a file, no limit when not set
+        private Integer maxBodySize;
+        // truncate or spill
+        private String bodyOverflow;
+        // Seconds between partial reports of a running spec, the report is only written at the end when not set
+        private Integer refreshInterval;
+        // Compare step latencies with the baseline file in the report dir, it is created by the first passed run
+        private Boolean baseline;
+        // Percent a step p50 or p95 may grow before a significant change is a regression
+        private Double baselineTolerance;
+        // Replace the baseline with the results of a passed run
+        private Boolean updateBaseline;
 
         @FunctionalInterface
         public static interface Completion {
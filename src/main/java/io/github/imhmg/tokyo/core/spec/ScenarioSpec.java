@@ -18,4 +18,8 @@ public class ScenarioSpec {
     private List<StepSpec> postSteps = new ArrayList<>();
     private List<DataSpec> inputs = new ArrayList<>();
     private Map<String, Object> configs = new HashMap<>();
+    private Integer parallel;
+    private LoadSpec load;
+    private Integer concurrentSteps;
+    private List<ThresholdSpec> thresholds = new ArrayList<>();
 }
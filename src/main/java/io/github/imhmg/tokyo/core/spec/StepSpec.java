@@ -3,7 +3,9 @@ package io.github.imhmg.tokyo.core.spec;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -18,5 +20,6 @@ public class StepSpec {
     private Map<String, String> configs = new HashMap<>();
     private String preHook;
     private String postHook;
+    private List<String> dependsOn = new ArrayList<>();
 
 }
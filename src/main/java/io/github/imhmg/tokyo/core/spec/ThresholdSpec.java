@@ -0,0 +1,22 @@
+package io.github.imhmg.tokyo.core.spec;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThresholdSpec {
+    public static final String ERROR_RATE = "errorRate";
+    public static final String THROUGHPUT = "throughput";
+    public static final List<String> METRICS = List.of("p50", "p90", "p95", "p99", "mean", "max", ERROR_RATE, THROUGHPUT);
+
+    private String metric;
+    // Step id, all scenario steps are used when not set
+    private String step;
+    private Double max;
+    private Double min;
+}
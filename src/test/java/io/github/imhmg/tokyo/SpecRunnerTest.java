@@ -0,0 +1,138 @@
+package io.github.imhmg.tokyo;
+
+import io.github.imhmg.tokyo.commons.ReportGenerator;
+import io.github.imhmg.tokyo.core.Context;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.core.http.HttpRequestStep;
+import io.github.imhmg.tokyo.core.http.HttpResponse;
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import io.github.imhmg.tokyo.util.ProductsMockAPI;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecRunnerTest {
+
+    private static MockWebServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new ProductsMockAPI());
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        server.shutdown();
+    }
+
+    private static RunSpec.RunSpecBuilder runSpec() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("port", String.valueOf(server.getPort()));
+        configs.put("domain", server.getHostName());
+        return RunSpec.builder()
+                .scenarioSpecFile("product/flow-1.yaml")
+                .configFiles(List.of("product/env.yaml"))
+                .inputFile("product/product-input.csv")
+                .configs(configs)
+                .reportSpec(RunSpec.ReportSpec.builder().dir("build/tokyo-test").build());
+    }
+
+    private static List<Step> getRowSteps(Scenario scenario, String row) {
+        List<Step> steps = scenario.getSteps().get(row);
+        assertNotNull(steps, row);
+        return steps;
+    }
+
+    private static Step getStep(List<Step> steps, String id) {
+        return steps.stream().filter(s -> s.getSpec().getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void concurrentSteps() {
+        SpecRunner runner = new SpecRunner(runSpec().build());
+        runner.getSpec().setConcurrentSteps(4);
+        runner.execute();
+
+        Scenario scenario = runner.getScenario();
+        assertTrue(scenario.isPassed(), () -> "Failures " + scenario.getFailures());
+        for (String row : List.of("Scenario : Product 1", "Scenario : Product 2")) {
+            List<Step> steps = getRowSteps(scenario, row);
+            // Steps are reported in written order, product update defines values product get asserts
+            assertEquals(List.of("product-add", "product-get", "product-update", "product-get-2", "product-remove"),
+                    steps.stream().map(s -> s.getSpec().getId()).toList());
+            assertTrue(getStep(steps, "product-update").getStartOffset() >= getStep(steps, "product-get").getEndOffset());
+            assertTrue(getStep(steps, "product-remove").getStartOffset() >= getStep(steps, "product-get-2").getEndOffset());
+        }
+    }
+
+    @Test
+    void parallelRows() {
+        SpecRunner runner = new SpecRunner(runSpec().parallel(4).build());
+        runner.execute();
+
+        Scenario scenario = runner.getScenario();
+        assertTrue(scenario.isPassed(), () -> "Failures " + scenario.getFailures());
+        // Rows finish in any order but are reported in input order
+        assertEquals(List.of("Pre Steps", "Scenario : Product 1", "Scenario : Product 2", "Scenario : Product 3", "Scenario : Product 4"),
+                new ArrayList<>(scenario.getSteps().keySet()));
+
+        Set<Context> contexts = new HashSet<>();
+        Set<Object> productIds = new HashSet<>();
+        for (int i = 1; i <= 4; i++) {
+            List<Step> steps = getRowSteps(scenario, "Scenario : Product " + i);
+            assertEquals(5, steps.size());
+            // All steps of a row share one context, captures of other rows are not visible in it
+            Context context = getStep(steps, "product-add").getContext();
+            assertTrue(steps.stream().allMatch(s -> s.getContext() == context));
+            assertNotSame(scenario.getContext(), context);
+            assertEquals(context.getInputData().get("id"), context.getVars().get("productId"));
+            assertNotNull(context.getVars().get("authorization"));
+            contexts.add(context);
+            productIds.add(context.getVars().get("productId"));
+        }
+        assertEquals(4, contexts.size());
+        assertEquals(4, productIds.size());
+        assertNull(scenario.getContext().getVars().get("productId"));
+    }
+
+    @Test
+    void poolOptionsRejectedForJavaTransport() {
+        RunSpec spec = runSpec().build();
+        spec.getConfigs().put("TKY_HTTP_TRANSPORT", "java");
+        spec.getConfigs().put("TKY_POOL_MAX_CONNECTIONS", "5");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new SpecRunner(spec));
+        assertEquals("Connection pool options are not supported by the java transport. Invalid options in step Login", e.getMessage());
+    }
+
+    @Test
+    void responsesReleasedOnceReported() throws IOException {
+        SpecRunner runner = new SpecRunner(runSpec().build());
+        runner.execute();
+
+        Scenario scenario = runner.getScenario();
+        assertTrue(scenario.isPassed(), () -> "Failures " + scenario.getFailures());
+        for (List<Step> steps : scenario.getSteps().values()) {
+            for (Step step : steps) {
+                // Bodies are only kept in the report, results and times stay on the step
+                HttpResponse response = ((HttpRequestStep) step).getHttpResponse();
+                assertNull(response.getBody());
+                assertNull(response.getPrettyBody());
+                assertEquals(200, response.getStatus());
+            }
+        }
+        String report = Files.readString(Path.of(ReportGenerator.getReportPath(runner)));
+        assertTrue(report.contains("&quot;supplierName&quot;"));
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.imhmg.tokyo;
+
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokyoCliTest {
+
+    @Test
+    void parseArgs() {
+        RunSpec runSpec = TokyoCli.parseArgs(new String[]{
+                "--scenario", "product/flow-1.yaml",
+                "--input", "product/product-input.csv",
+                "--config", "product/env.yaml",
+                "--set", "port=52001",
+                "--set", "domain=localhost",
+                "--parallel", "4",
+                "--report-dir", "build/cli",
+                "--report-file", "report.html"
+        });
+        assertEquals("product/flow-1.yaml", runSpec.getScenarioSpecFile());
+        assertEquals("product/product-input.csv", runSpec.getInputFile());
+        assertEquals(List.of("product/env.yaml"), runSpec.getConfigFiles());
+        assertEquals("52001", runSpec.getConfigs().get("port"));
+        assertEquals("localhost", runSpec.getConfigs().get("domain"));
+        assertEquals(4, runSpec.getParallel());
+        assertEquals("build/cli", runSpec.getReportSpec().getDir());
+        assertEquals("report.html", runSpec.getReportSpec().getFile());
+    }
+
+    @Test
+    void parseArgsHelp() {
+        assertNull(TokyoCli.parseArgs(new String[]{"--help"}));
+    }
+
+    @Test
+    void parseArgsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> TokyoCli.parseArgs(new String[]{"--input", "a.csv"}));
+        assertThrows(IllegalArgumentException.class, () -> TokyoCli.parseArgs(new String[]{"--scenario"}));
+        assertThrows(IllegalArgumentException.class, () -> TokyoCli.parseArgs(new String[]{"--scenario", "a.yaml", "--parallel", "x"}));
+        assertThrows(IllegalArgumentException.class, () -> TokyoCli.parseArgs(new String[]{"--scenario", "a.yaml", "--unknown"}));
+    }
+
+    @Test
+    void runInvalidArgs() {
+        assertEquals(TokyoCli.EXIT_ERROR, TokyoCli.run(new String[]{"--unknown"}));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.imhmg.tokyo;
+
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokyoRunnerTest {
+
+    private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+    // Spec runner that only sleeps, so specs finish in a known order
+    private class SleepingRunner extends SpecRunner {
+        private final long sleep;
+        private final boolean fail;
+
+        SleepingRunner(String name, long sleep, boolean fail) {
+            super(RunSpec.builder()
+                    .scenarioSpecFile("product/flow-1.yaml")
+                    .configFiles(List.of("product/env.yaml"))
+                    .configs(Map.of("port", "52002", "domain", "localhost"))
+                    .build());
+            this.getSpec().setName(name);
+            this.sleep = sleep;
+            this.fail = fail;
+        }
+
+        @Override
+        public void execute() {
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completed.add(getSpec().getName());
+            if (fail) {
+                throw new IllegalStateException("Spec failed");
+            }
+        }
+
+        @Override
+        public Stream<DynamicContainer> replay() {
+            return Stream.of(DynamicContainer.dynamicContainer(getSpec().getName(), Stream.empty()));
+        }
+    }
+
+    private static String getChildName(DynamicContainer container) {
+        List<? extends DynamicNode> children = container.getChildren().toList();
+        assertEquals(1, children.size());
+        return children.get(0).getDisplayName();
+    }
+
+    @Test
+    void resultsInRegistrationOrder() {
+        List<SpecRunner> runners = List.of(new SleepingRunner("Spec 1", 300, false),
+                new SleepingRunner("Spec 2", 0, false),
+                new SleepingRunner("Spec 3", 100, false));
+        List<DynamicContainer> containers = TokyoRunner.runConcurrently(runners, 3).toList();
+
+        assertEquals(List.of("Spec : Spec 1", "Spec : Spec 2", "Spec : Spec 3"),
+                containers.stream().map(DynamicContainer::getDisplayName).toList());
+        // Each container replays its own spec, even though the specs finished in another order
+        assertEquals(List.of("Spec 1", "Spec 2", "Spec 3"), containers.stream().map(TokyoRunnerTest::getChildName).toList());
+        assertEquals(List.of("Spec 2", "Spec 3", "Spec 1"), completed);
+    }
+
+    @Test
+    void failedSpecOnlyFailsItsContainer() {
+        List<SpecRunner> runners = List.of(new SleepingRunner("Spec 1", 0, true),
+                new SleepingRunner("Spec 2", 0, false));
+        List<DynamicContainer> containers = TokyoRunner.runConcurrently(runners, 2).toList();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> getChildName(containers.get(0)));
+        assertEquals("Error while running spec Spec 1", e.getMessage());
+        assertEquals("Spec 2", getChildName(containers.get(1)));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.imhmg.tokyo.commons;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleTest {
+
+    private PrintStream out;
+    private ByteArrayOutputStream captured;
+
+    @BeforeEach
+    void capture() {
+        Console.flush();
+        out = System.out;
+        captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+    }
+
+    @AfterEach
+    void restore() {
+        Console.flush();
+        System.setOut(out);
+        Console.setLevel(Console.Level.FULL);
+    }
+
+    @Test
+    void failuresOnly() {
+        Console.setLevel(Console.Level.FAILURES);
+        assertFalse(Console.isEnabled());
+
+        Console.beginStep();
+        assertTrue(Console.isEnabled());
+        Console.print("passed step");
+        Console.endStep(false);
+
+        Console.beginStep();
+        Console.print("failed step");
+        Console.endStep(true);
+        Console.flush();
+
+        String output = captured.toString();
+        assertFalse(output.contains("passed step"));
+        assertTrue(output.contains("failed step"));
+    }
+
+    @Test
+    void summary() {
+        Console.setLevel(Console.Level.SUMMARY);
+        Console.beginStep();
+        Console.print("request details");
+        Console.endStep(true);
+        Console.summary("PASS step");
+        Console.flush();
+
+        String output = captured.toString();
+        assertFalse(output.contains("request details"));
+        assertTrue(output.contains("PASS step"));
+        assertThrows(IllegalArgumentException.class, () -> Console.parseLevel("verbose"));
+    }
+
+    @Test
+    void messagesAreNotDropped() throws Exception {
+        Console.setLevel(Console.Level.FULL);
+        // Stdout blocks until released, so the queue fills up behind the first line
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                captured.write(b);
+            }
+        }, true));
+
+        Console.print("first line");
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 20000; i++) {
+            Console.print("step line " + i);
+        }
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        Console.summary("FAIL threshold p95");
+        Console.message("Load test summary");
+        Console.flush();
+        releaser.join();
+
+        String output = captured.toString();
+        assertTrue(output.contains("console lines dropped"));
+        assertTrue(output.contains("FAIL threshold p95"));
+        assertTrue(output.contains("Load test summary"));
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.imhmg.tokyo.commons;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import io.github.imhmg.tokyo.commons.assertions.Operator;
 import org.junit.jupiter.api.Test;
 
@@ -181,4 +183,78 @@ class ExpressionParserTest {
         assertEquals("$.id=='some' [<<>>] Some", result.getKey());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void parseTime_1() {
+        ExpressionParser.Result result = ExpressionParser.parseExpression("@time [<] 200");
+        assertEquals(ExpressionParser.Source.TIME, result.getSource());
+        assertNull(result.getKey());
+        assertEquals(Operator.LT, result.getOperator());
+        assertEquals("200", result.getExpectedValue());
+    }
+
+    @Test
+    public void parseTime_2() {
+        ExpressionParser.Result result = ExpressionParser.parseExpression("@time firstByte [<=] 50.5");
+        assertEquals(ExpressionParser.Source.TIME, result.getSource());
+        assertEquals("firstByte", result.getKey());
+        assertEquals(Operator.LTE, result.getOperator());
+        assertEquals("50.5", result.getExpectedValue());
+    }
+
+    @Test
+    public void parseTime_3() {
+        ExpressionParser.Result result = ExpressionParser.parseExpression("@time connect [<...>] 0...100");
+        assertEquals("connect", result.getKey());
+        assertEquals(Operator.RANGE, result.getOperator());
+        assertEquals("0...100", result.getExpectedValue());
+    }
+
+    @Test
+    public void parseTime_4() {
+        ExpressionParser.Result result = ExpressionParser.parseExpression("@time");
+        assertEquals(ExpressionParser.Source.TIME, result.getSource());
+        assertNull(result.getKey());
+        assertNull(result.getOperator());
+    }
+
+    @Test
+    public void parseTime_5() {
+        assertThrows(Exception.class, () -> {
+            ExpressionParser.parseExpression("@time handshake [<] 20");
+        });
+        assertThrows(Exception.class, () -> {
+            ExpressionParser.parseExpression("@timefirstByte [<] 20");
+        });
+    }
+
+    @Test
+    public void parseNumericOperators() {
+        assertEquals(Operator.GT, ExpressionParser.parseExpression("@body json.$.count [>] 1").getOperator());
+        assertEquals(Operator.GTE, ExpressionParser.parseExpression("@header Content-Length [>=] 10").getOperator());
+        assertEquals(Operator.CONTAINS, ExpressionParser.parseExpression("@body raw [<>] <b>").getOperator());
+    }
+
+    @Test
+    public void parseNumericOperators_invalidExpected() {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parseExpression("@time [<] fast"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parseExpression("@body json.$.count [>=] "));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parseExpression("@time [<...>] 10"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parseExpression("@time [<...>] 10...max"));
+        assertEquals("-1...2.5", ExpressionParser.parseExpression("@body json.$.delta [<...>] -1...2.5").getExpectedValue());
+    }
+
+    @Test
+    public void extractJson_1() {
+        DocumentContext document = JsonPath.parse("{\"id\": 10, \"items\": [{\"name\": \"a\"}, {\"name\": \"b\"}]}");
+        assertEquals("10", ExpressionParser.extractJsonValue(() -> document, "$.id"));
+        assertEquals("b", ExpressionParser.extractJsonValue(() -> document, "$.items[1].name"));
+        assertNull(ExpressionParser.extractJsonValue(() -> document, "$.missing"));
+    }
+
+    @Test
+    public void extractJson_2() {
+        assertEquals("10", ExpressionParser.extractValueByFormatAndExpression("{\"id\": 10}", ExpressionParser.Format.JSON, "$.id"));
+        assertNull(ExpressionParser.extractValueByFormatAndExpression("not json", ExpressionParser.Format.JSON, "$.id"));
+    }
+
+}
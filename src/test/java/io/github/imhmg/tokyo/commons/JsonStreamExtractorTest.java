@@ -0,0 +1,65 @@
+package io.github.imhmg.tokyo.commons;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamExtractorTest {
+
+    private static final String JSON = "{\"id\": 10, \"price\": 1.5, \"active\": true, \"name\": \"Phone\", \"empty\": null," +
+            " \"items\": [{\"name\": \"a\"}, {\"name\": \"b\", \"tags\": [\"x\", \"y\"]}], \"supplier\": {\"name\": \"ACME\"}}";
+
+    private Map<String, String> extract(String... paths) {
+        return JsonStreamExtractor.extract(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), List.of(paths));
+    }
+
+    @Test
+    public void extractValues() {
+        Map<String, String> values = extract("$.id", "$.price", "$.active", "$.name", "$.empty", "$.items[1].name", "$['supplier']['name']", "$.items[1].tags[0]");
+        assertEquals("10", values.get("$.id"));
+        assertEquals("1.5", values.get("$.price"));
+        assertEquals("true", values.get("$.active"));
+        assertEquals("Phone", values.get("$.name"));
+        assertNull(values.get("$.empty"));
+        assertEquals("b", values.get("$.items[1].name"));
+        assertEquals("ACME", values.get("$['supplier']['name']"));
+        assertEquals("x", values.get("$.items[1].tags[0]"));
+    }
+
+    @Test
+    public void extractNestedValues() {
+        Map<String, String> values = extract("$.supplier", "$.supplier.name", "$.missing", "$.items[5].name");
+        assertEquals("{name=ACME}", values.get("$.supplier"));
+        assertEquals("ACME", values.get("$.supplier.name"));
+        assertNull(values.get("$.missing"));
+        assertNull(values.get("$.items[5].name"));
+    }
+
+    @Test
+    public void sameValuesAsJsonPath() {
+        // Asserts and captures give the same values with and without TKY_STREAM_BODY
+        DocumentContext document = JsonPath.parse(JSON);
+        String[] paths = {"$.id", "$.price", "$.active", "$.name", "$.supplier", "$.items", "$.items[1]", "$.items[1].tags"};
+        Map<String, String> values = extract(paths);
+        for (String path : paths) {
+            assertEquals(ExpressionParser.extractJsonValue(() -> document, path), values.get(path), path);
+        }
+    }
+
+    @Test
+    public void supportedPaths() {
+        assertTrue(JsonStreamExtractor.isSupported("$.data.items[0].id"));
+        assertTrue(JsonStreamExtractor.isSupported("$['spaced key']"));
+        assertFalse(JsonStreamExtractor.isSupported("$..id"));
+        assertFalse(JsonStreamExtractor.isSupported("$.items[*].id"));
+        assertFalse(JsonStreamExtractor.isSupported("$.items[?(@.id == 1)]"));
+        assertFalse(JsonStreamExtractor.isSupported("$.items.length()"));
+    }
+}
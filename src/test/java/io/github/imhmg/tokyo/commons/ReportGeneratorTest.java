@@ -0,0 +1,104 @@
+package io.github.imhmg.tokyo.commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.imhmg.tokyo.SpecRunner;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import io.github.imhmg.tokyo.util.TestStep;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportGeneratorTest {
+
+    private static final String DETAILS = "<pre>\"quoted\" \\ back slash\nnew line \t tab \u00e9</pre>";
+
+    @TempDir
+    Path dir;
+    private SpecRunner runner;
+
+    static SpecRunner createRunner(Path dir) {
+        SpecRunner runner = new SpecRunner(RunSpec.builder()
+                .scenarioSpecFile("product/flow-1.yaml")
+                .configFiles(List.of("product/env.yaml"))
+                .reportSpec(RunSpec.ReportSpec.builder().dir(dir.toString()).file("report.html").build())
+                .build());
+        Scenario scenario = new Scenario();
+        scenario.initialize(runner.getSpec(), List.of(new DataSpec()));
+        runner.setScenario(scenario);
+        runner.setReportSpool(new ReportSpool(runner));
+        return runner;
+    }
+
+    static Map<String, Object> readReport(String path) throws IOException {
+        // Report data is the first json value after the placeholder position in the template
+        String html = Files.readString(Paths.get(path), StandardCharsets.UTF_8);
+        int index = html.indexOf("reportData: ");
+        assertTrue(index > 0);
+        return new ObjectMapper().readValue(html.substring(index + "reportData: ".length()), Map.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        runner = createRunner(dir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.getReportSpool().close();
+    }
+
+    @Test
+    void streamedReportIsValidJson() throws IOException {
+        Step passed = new TestStep("product-get", true, 12, DETAILS);
+        Step failed = new TestStep("product-add", false, 30, null);
+        runner.getScenario().getSteps().put("Scenario : Product 1", List.of(passed, failed));
+        runner.getScenario().getMetrics().record(passed);
+        runner.getScenario().getMetrics().record(failed);
+
+        ReportGenerator.generateReport(runner);
+
+        Map<String, Object> report = readReport(runner.getReportSpool().getPath());
+        assertEquals("Product Flow 1", report.get("title"));
+        assertEquals(false, report.get("partial"));
+        assertEquals(2, report.get("totalSteps"));
+        assertEquals(1, report.get("failedSteps"));
+        assertEquals(1, report.get("failedSections"));
+
+        List<Map<String, Object>> sections = (List<Map<String, Object>>) report.get("sections");
+        assertEquals(1, sections.size());
+        List<Map<String, Object>> steps = (List<Map<String, Object>>) sections.get(0).get("steps");
+        assertEquals(DETAILS, steps.get(0).get("details"));
+        assertNull(steps.get(1).get("details"));
+        assertEquals("500", ((List<Map<String, Object>>) steps.get(1).get("asserts")).get(0).get("actual"));
+
+        Map<String, Object> metrics = (Map<String, Object>) report.get("metrics");
+        List<Map<String, Object>> stepMetrics = (List<Map<String, Object>>) metrics.get("steps");
+        assertEquals("product-add", stepMetrics.get(0).get("id"));
+        assertEquals(1, stepMetrics.get(0).get("errors"));
+        assertEquals(12, stepMetrics.get(1).get("p99"));
+    }
+
+    @Test
+    void emptyReportIsValidJson() throws IOException {
+        ReportGenerator.generateReport(runner);
+
+        Map<String, Object> report = readReport(runner.getReportSpool().getPath());
+        assertTrue(((List<?>) report.get("sections")).isEmpty());
+        assertEquals(0, report.get("totalSteps"));
+        assertNull(report.get("metrics"));
+    }
+}
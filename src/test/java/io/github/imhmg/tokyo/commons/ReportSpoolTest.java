@@ -0,0 +1,112 @@
+package io.github.imhmg.tokyo.commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.imhmg.tokyo.SpecRunner;
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.util.TestStep;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportSpoolTest {
+
+    @TempDir
+    Path dir;
+    private SpecRunner runner;
+    private ReportSpool spool;
+
+    @BeforeEach
+    void setUp() {
+        runner = ReportGeneratorTest.createRunner(dir);
+        spool = runner.getReportSpool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    private static List<Map<String, Object>> readSections(ReportSpool spool) throws IOException {
+        StringWriter writer = new StringWriter();
+        spool.copyTo(writer);
+        return new ObjectMapper().readValue("[" + writer + "]", List.class);
+    }
+
+    private static List<Step> sectionSteps(boolean... passed) {
+        Step[] steps = new Step[passed.length];
+        for (int i = 0; i < passed.length; i++) {
+            steps[i] = new TestStep("step-" + i, passed[i], 10, "details");
+        }
+        return List.of(steps);
+    }
+
+    @Test
+    void appendOnce() throws IOException {
+        spool.append("Scenario : Product 1", sectionSteps(true, true));
+        spool.append("Scenario : Product 2", sectionSteps(true, false));
+        // A section is only written the first time it finished
+        spool.append("Scenario : Product 1", sectionSteps(false));
+
+        assertEquals(2, spool.getTotalSections());
+        assertEquals(1, spool.getPassedSections());
+        assertEquals(1, spool.getFailedSections());
+        assertEquals(3, spool.getPassedSteps());
+        assertEquals(1, spool.getFailedSteps());
+
+        List<Map<String, Object>> sections = readSections(spool);
+        assertEquals(2, sections.size());
+        assertEquals("Scenario : Product 1", sections.get(0).get("title"));
+        assertEquals(true, sections.get(0).get("status"));
+        assertEquals("Scenario : Product 2", sections.get(1).get("title"));
+        assertEquals(1, sections.get(1).get("failedSteps"));
+    }
+
+    @Test
+    void appendAllAddsUnreportedSections() throws IOException {
+        Map<String, List<Step>> steps = runner.getScenario().getSteps();
+        steps.put("Pre Steps", sectionSteps(true));
+        steps.put("Scenario : Product 1", sectionSteps(true, false));
+        steps.put("Scenario : Product 2", sectionSteps(true));
+        spool.append("Scenario : Product 1", steps.get("Scenario : Product 1"));
+
+        spool.appendAll(steps);
+
+        assertEquals(3, spool.getTotalSections());
+        assertEquals(3, spool.getPassedSteps());
+        assertEquals(1, spool.getFailedSteps());
+        List<Map<String, Object>> sections = readSections(spool);
+        assertEquals(List.of("Scenario : Product 1", "Pre Steps", "Scenario : Product 2"),
+                sections.stream().map(s -> s.get("title")).toList());
+    }
+
+    @Test
+    void partialRefresh() throws IOException {
+        Map<String, List<Step>> steps = runner.getScenario().getSteps();
+        steps.put("Scenario : Product 1", sectionSteps(true));
+        steps.put("Scenario : Product 2", sectionSteps(false));
+        spool.append("Scenario : Product 1", steps.get("Scenario : Product 1"));
+
+        // Partial reports only show finished sections
+        ReportGenerator.refreshReport(runner);
+        Map<String, Object> report = ReportGeneratorTest.readReport(spool.getPath());
+        assertEquals(true, report.get("partial"));
+        assertEquals(1, ((List<?>) report.get("sections")).size());
+        assertEquals(1, report.get("totalSteps"));
+
+        ReportGenerator.generateReport(runner);
+        report = ReportGeneratorTest.readReport(spool.getPath());
+        assertEquals(false, report.get("partial"));
+        assertEquals(2, ((List<?>) report.get("sections")).size());
+        assertEquals(1, report.get("failedSteps"));
+        assertEquals(1, report.get("failedSections"));
+    }
+}
@@ -40,4 +40,16 @@ class VariableParserTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testReplaceVariablesInnerVariableFirst() {
+        Map<String, String> values = Map.of("id", "7", "user.7", "Seven");
+        assertEquals("Name Seven", VariableParser.replaceVariables("Name ${user.${id}}", values::get));
+    }
+
+    @Test
+    void testReplaceVariablesUnresolved() {
+        assertEquals("Missing ${unknown} and ${self}", VariableParser.replaceVariables("Missing ${unknown} and ${self}", key -> key.equals("self") ? "${self}" : null));
+        assertEquals("Open ${firstName", VariableParser.replaceVariables("Open ${firstName", vars::get));
+    }
+
+}
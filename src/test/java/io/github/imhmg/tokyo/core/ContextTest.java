@@ -0,0 +1,46 @@
+package io.github.imhmg.tokyo.core;
+
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextTest {
+
+    @Test
+    void scopePrecedence() {
+        Context context = new Context();
+        context.setConfigs(new HashMap<>(Map.of("server", "config", "user", "config", "token", "config", "timeout", "config")));
+        DataSpec inputs = new DataSpec();
+        inputs.setData(new HashMap<>(Map.of("user", "input", "token", "input", "timeout", "input")));
+        context.setInputs(inputs);
+        context.getVars().put("token", "var");
+
+        VariableScope scope = context.getScope(Map.of("timeout", "step", "token", "step"));
+        assertEquals("config", scope.get("server"));
+        assertEquals("input", scope.get("user"));
+        assertEquals("step", scope.get("timeout"));
+        assertEquals("var", scope.get("token"));
+        assertNull(scope.get("missing"));
+
+        // Captures added after the scope is created are visible
+        context.getVars().put("server", "captured");
+        assertEquals("captured", scope.get("server"));
+    }
+
+    @Test
+    void scopeFollowsInputs() {
+        Context context = new Context();
+        DataSpec first = new DataSpec();
+        first.setData(Map.of("name", "first"));
+        DataSpec second = new DataSpec();
+        second.setData(Map.of("name", "second"));
+        context.setInputs(first);
+        assertEquals("first", context.getScope(Map.of()).get("name"));
+        context.setInputs(second);
+        assertEquals("second", context.getScope(Map.of()).get("name"));
+    }
+}
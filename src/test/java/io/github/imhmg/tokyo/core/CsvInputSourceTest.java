@@ -0,0 +1,69 @@
+package io.github.imhmg.tokyo.core;
+
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvInputSourceTest {
+
+    @TempDir
+    Path dir;
+
+    private String write(String content) throws IOException {
+        Path file = dir.resolve("input.csv");
+        Files.writeString(file, content);
+        return file.toString();
+    }
+
+    @Test
+    void rowsAreReadWhenTaken() throws IOException {
+        String file = write("#Name#,id,server\nFirst,1,${server}\nSecond,2,${server}\nBroken,3\n");
+        CsvInputSource source = new CsvInputSource(file, Map.of("server", "localhost")::get);
+
+        Iterator<DataSpec> rows = source.iterator();
+        DataSpec first = rows.next();
+        assertEquals("First", first.getName());
+        assertEquals("1", first.getData().get("id"));
+        assertEquals("localhost", first.getData().get("server"));
+        assertEquals("Second", rows.next().getName());
+        // Invalid row is only found when it is read
+        RuntimeException e = assertThrows(RuntimeException.class, rows::next);
+        assertEquals("Input files invalid row (column count doesnt match) 3", e.getMessage());
+
+        // Every iterator starts from the first row
+        assertEquals("First", source.iterator().next().getName());
+    }
+
+    @Test
+    void rowsWithoutName() throws IOException {
+        Iterator<DataSpec> rows = new CsvInputSource(write("id\n1\n2\n"), key -> null).iterator();
+        assertEquals("Case 1", rows.next().getName());
+        assertEquals("Case 2", rows.next().getName());
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    void firstRowCheckedUpfront() throws IOException {
+        String file = write("#Name#,id\nFirst,1,extra\n");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new CsvInputSource(file, key -> null));
+        assertEquals("Input files invalid row (column count doesnt match) 1", e.getMessage());
+
+        String empty = write("#Name#,id\n");
+        assertEquals("Input files must have rows", assertThrows(RuntimeException.class, () -> new CsvInputSource(empty, key -> null)).getMessage());
+    }
+
+    @Test
+    void duplicateNames() throws IOException {
+        Iterator<DataSpec> rows = new CsvInputSource(write("#Name#,id\nSame,1\nSame,2\n"), key -> null).iterator();
+        rows.next();
+        assertThrows(IllegalArgumentException.class, rows::next);
+    }
+}
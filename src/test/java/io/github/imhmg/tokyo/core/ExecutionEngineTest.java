@@ -0,0 +1,74 @@
+package io.github.imhmg.tokyo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionEngineTest {
+
+    private static int maxRunning(ExecutionEngine engine, int tasks) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            futures.add(engine.submit(() -> {
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return max.get();
+    }
+
+    @Test
+    void boundedWithVirtualThreads() {
+        ExecutionEngine engine = new ExecutionEngine(2, true);
+        try {
+            assertEquals(ExecutionEngine.isVirtualThreadsSupported(), engine.isVirtual());
+            int max = maxRunning(engine, 8);
+            assertTrue(max <= 2, "Max running tasks " + max);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void platformThreads() {
+        ExecutionEngine engine = new ExecutionEngine(3, false);
+        try {
+            assertFalse(engine.isVirtual());
+            assertTrue(engine.submit(() -> Thread.currentThread().getName()).join().startsWith("tky-worker-"));
+            int max = maxRunning(engine, 9);
+            assertTrue(max <= 3, "Max running tasks " + max);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void failuresCompleteTheFuture() {
+        ExecutionEngine engine = new ExecutionEngine(1, true);
+        try {
+            CompletableFuture<Object> failed = engine.submit(() -> {
+                throw new IllegalStateException("failed");
+            });
+            assertThrows(Exception.class, failed::join);
+            // Permit of the failed task is released
+            assertEquals("next", engine.submit(() -> "next").join());
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.imhmg.tokyo.core;
+
+import io.github.imhmg.tokyo.commons.FileReader;
+import io.github.imhmg.tokyo.commons.YamlParser;
+import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepGraphTest {
+
+    private StepSpec step(String id, String ref, String... dependsOn) {
+        StepSpec spec = new StepSpec();
+        spec.setId(id);
+        spec.setName(id);
+        spec.setRef(ref);
+        spec.setDependsOn(List.of(dependsOn));
+        return spec;
+    }
+
+    @Test
+    void inferFromDefines() {
+        StepGraph graph = new StepGraph(List.of(
+                step("product-add", "product/requests/product-add.yaml"),
+                step("product-update", "product/requests/product-update.yaml"),
+                step("product-get", "product/requests/product-get.yaml")
+        ));
+        assertEquals(Set.of(), graph.getDependencies("product-add"));
+        // Update defines name which product add read, so it waits for product add
+        assertEquals(Set.of("product-add"), graph.getDependencies("product-update"));
+        assertEquals(Set.of("product-update"), graph.getDependencies("product-get"));
+    }
+
+    @Test
+    void readersBeforeLaterProducers() {
+        StepGraph graph = new StepGraph(List.of(
+                step("product-get", "product/requests/product-get.yaml"),
+                step("product-get-2", "product/requests/product-get.yaml"),
+                step("product-update", "product/requests/product-update.yaml")
+        ));
+        // Both gets capture productId so they keep their order, the update defines variables both read
+        assertEquals(Set.of(), graph.getDependencies("product-get"));
+        assertEquals(Set.of("product-get"), graph.getDependencies("product-get-2"));
+        assertEquals(Set.of("product-get", "product-get-2"), graph.getDependencies("product-update"));
+    }
+
+    @Test
+    void flow() {
+        ScenarioSpec spec = YamlParser.parse(FileReader.readFile("product/flow-1.yaml"), ScenarioSpec.class);
+        StepGraph graph = new StepGraph(spec.getSteps());
+        assertEquals(Set.of(), graph.getDependencies("product-add"));
+        assertEquals(Set.of("product-add"), graph.getDependencies("product-get"));
+        // Product get reads the values product update defines, they never run at the same time
+        assertEquals(Set.of("product-add", "product-get"), graph.getDependencies("product-update"));
+        assertEquals(Set.of("product-update"), graph.getDependencies("product-get-2"));
+        assertEquals(Set.of("product-update", "product-get-2"), graph.getDependencies("product-remove"));
+        assertEquals(List.of("product-add", "product-get", "product-update", "product-get-2", "product-remove"), graph.getOrder());
+    }
+
+    @Test
+    void inferFromCaptures() {
+        StepGraph graph = new StepGraph(List.of(
+                step("login", "product/requests/login.yaml"),
+                step("product-add", "product/requests/product-add.yaml")
+        ));
+        assertEquals(Set.of("login"), graph.getDependencies("product-add"));
+    }
+
+    @Test
+    void explicitDependsOn() {
+        StepGraph graph = new StepGraph(List.of(
+                step("product-add", "product/requests/product-add.yaml"),
+                step("product-remove", "product/requests/product-remove.yaml", "product-add")
+        ));
+        assertEquals(Set.of("product-add"), graph.getDependencies("product-remove"));
+    }
+
+    @Test
+    void forwardDependsOn() {
+        StepGraph graph = new StepGraph(List.of(
+                step("product-get", "product/requests/product-get.yaml", "product-add"),
+                step("product-add", "product/requests/product-add.yaml")
+        ));
+        assertEquals(Set.of("product-add"), graph.getDependencies("product-get"));
+        // Written order is not kept against dependsOn
+        assertEquals(Set.of(), graph.getDependencies("product-add"));
+        assertEquals(List.of("product-add", "product-get"), graph.getOrder());
+    }
+
+    @Test
+    void cyclicDependsOn() {
+        assertThrows(IllegalArgumentException.class, () -> new StepGraph(List.of(
+                step("product-add", "product/requests/product-add.yaml", "product-remove"),
+                step("product-remove", "product/requests/product-remove.yaml", "product-add")
+        )));
+    }
+
+    @Test
+    void unknownDependsOn() {
+        assertThrows(IllegalArgumentException.class, () -> new StepGraph(List.of(
+                step("product-add", "product/requests/product-add.yaml", "unknown")
+        )));
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.core.spec.RunSpec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyRetentionTest {
+
+    private static HttpResponse response(String body) {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(200);
+        response.setContentType("application/json");
+        response.setBody(body);
+        return response;
+    }
+
+    @Test
+    void truncate() {
+        String body = "a".repeat(3 * 1024);
+        HttpResponse response = response(body);
+        new BodyRetention(1, false).apply(response);
+
+        assertTrue(response.isTruncated());
+        assertNull(response.getBodyFile());
+        assertEquals("a".repeat(1024) + "\n... [truncated, 3 KB total]", response.getBody());
+        assertEquals(response.getBody(), response.getPrettyBody());
+    }
+
+    @Test
+    void spill() throws Exception {
+        String body = "{\"name\":\"" + "b".repeat(2 * 1024) + "\"}";
+        HttpResponse response = response(body);
+        new BodyRetention(1, true).apply(response);
+
+        assertTrue(response.isTruncated());
+        assertNotNull(response.getBodyFile());
+        Path file = Path.of(response.getBodyFile());
+        try {
+            assertEquals(body, Files.readString(file, StandardCharsets.UTF_8));
+            assertTrue(response.getBody().startsWith(body.substring(0, 1024)));
+            assertTrue(response.getBody().endsWith(", full body in " + response.getBodyFile() + "]"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void smallBodyIsKept() {
+        HttpResponse response = response("{\"id\":10}");
+        new BodyRetention(1, true).apply(response);
+
+        assertFalse(response.isTruncated());
+        assertNull(response.getBodyFile());
+        assertEquals("{\"id\":10}", response.getBody());
+    }
+
+    @Test
+    void of() {
+        assertNull(BodyRetention.of(new RunSpec.ReportSpec()));
+
+        BodyRetention retention = BodyRetention.of(RunSpec.ReportSpec.builder().maxBodySize(2).build());
+        assertEquals(2048, retention.getMaxSize());
+        assertFalse(retention.isSpill());
+
+        retention = BodyRetention.of(RunSpec.ReportSpec.builder().maxBodySize(1).bodyOverflow(BodyRetention.SPILL).build());
+        assertTrue(retention.isSpill());
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.core.Context;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolsTest {
+
+    private MockWebServer server;
+    private ConnectionPools pools;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        pools = new ConnectionPools();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        pools.close();
+        server.shutdown();
+    }
+
+    private HttpRequest request(int maxConnections) {
+        return HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .pool(ConnectionPoolSpec.builder().maxConnections(maxConnections).build())
+                .build();
+    }
+
+    private HttpResponse send(ConnectionPool pool) {
+        HttpRequest request = request(pool.getMaxConnections());
+        request.setConnectionPool(pool);
+        return HttpTransports.get(HttpTransports.REST_ASSURED).send(request);
+    }
+
+    private static StepSpec step(String id, String ref) {
+        StepSpec spec = new StepSpec();
+        spec.setId(id);
+        spec.setName(id);
+        spec.setRef(ref);
+        return spec;
+    }
+
+    @Test
+    void sharedByHostAndOptions() {
+        ConnectionPool pool = pools.get(request(5));
+        assertSame(pool, pools.get(request(5)));
+        assertNotSame(pool, pools.get(request(6)));
+        assertEquals(2, pools.getStats().size());
+
+        // Pools of another spec are neither shared nor reported
+        ConnectionPools other = new ConnectionPools();
+        try {
+            assertNotSame(pool, other.get(request(5)));
+            assertEquals(1, other.getStats().size());
+            assertEquals(2, pools.getStats().size());
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    void peakLeasedIsMeasured() throws Exception {
+        ConnectionPool pool = pools.get(request(5));
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setBody("{}"));
+            assertEquals(200, send(pool).getStatus());
+        }
+        // Sequential requests reuse one connection
+        assertEquals(1, pool.getPeakLeased().get());
+        assertEquals(0, pool.getLeased().get());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<HttpResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+                responses.add(executor.submit(() -> send(pool)));
+            }
+            for (Future<HttpResponse> response : responses) {
+                assertEquals(200, response.get().getStatus());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(3, pool.getPeakLeased().get());
+        assertEquals(0, pool.getLeased().get());
+        assertEquals(5, pool.getRequests().get());
+        assertEquals(60.0, (double) pool.getStats().get("utilization"), 0.001);
+    }
+
+    @Test
+    void prewarmedBeforeSteps() {
+        Context context = new Context();
+        context.setConfigs(new HashMap<>(Map.of(
+                "server", "http://" + server.getHostName() + ":" + server.getPort(),
+                "TKY_POOL_PREWARM", "2")));
+        // Product get uses the id input in its path, the host is known from the configs
+        pools.prepare(List.of(step("login", "product/requests/login.yaml"), step("product-get", "product/requests/product-get.yaml")), context);
+
+        List<Map<String, Object>> stats = pools.getStats();
+        assertEquals(1, stats.size());
+        assertEquals(2, stats.get(0).get("available"));
+        assertEquals(0, stats.get(0).get("peakLeased"));
+        assertEquals(0L, stats.get(0).get("requests"));
+    }
+
+    @Test
+    void notPreparedForOtherTransports() {
+        Context context = new Context();
+        context.setConfigs(new HashMap<>(Map.of(
+                "server", "http://" + server.getHostName() + ":" + server.getPort(),
+                "TKY_POOL_PREWARM", "2",
+                "TKY_HTTP_TRANSPORT", "java")));
+        pools.prepare(List.of(step("login", "product/requests/login.yaml")), context);
+        assertTrue(pools.getStats().isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.imhmg.tokyo.core.http;
+
+import io.github.imhmg.tokyo.core.Context;
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestStepTest {
+
+    @Test
+    void definesStayInStepUntilFinished() {
+        Context context = new Context();
+        context.setConfigs(new HashMap<>(Map.of("server", "http://localhost:8080")));
+        DataSpec input = new DataSpec();
+        input.setData(new HashMap<>(Map.of("id", "10", "name", "Before")));
+        context.setInputs(input);
+        StepSpec spec = new StepSpec();
+        spec.setId("product-update");
+        spec.setName("Product Update");
+        spec.setRef("product/requests/product-update.yaml");
+
+        HttpRequestStep step = new HttpRequestStep(spec, context);
+        String name = step.getVar("name");
+        assertNotEquals("Before", name);
+        assertTrue(step.getHttpRequestSpec().getJsonBody().contains("\"name\": \"" + name + "\""));
+        // Steps running alongside still see the input value
+        assertFalse(context.getVars().containsKey("name"));
+        assertEquals("Before", context.getScope(null).get("name"));
+
+        step.publishDefines();
+        assertEquals(name, context.getVars().get("name"));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.imhmg.tokyo.core.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpSpecTemplateTest {
+
+    Map<String, String> vars = Map.of(
+            "server", "http://localhost:8080",
+            "authorization", "Bearer token",
+            "id", "10",
+            "name", "Phone",
+            "price", "100",
+            "stock", "5",
+            "supplier", "ACME"
+    );
+
+    @Test
+    void compileOnce() {
+        assertSame(HttpSpecTemplate.of("product/requests/product-add.yaml"), HttpSpecTemplate.of("product/requests/product-add.yaml"));
+        assertTrue(HttpSpecTemplate.of("product/requests/product-add.yaml").isCompiled());
+    }
+
+    @Test
+    void render() {
+        HttpSpecTemplate template = HttpSpecTemplate.of("product/requests/product-add.yaml");
+        HttpSpec spec = template.render(vars::get);
+        assertEquals("http://localhost:8080/products/add", spec.getEndpoint());
+        assertEquals("Bearer token", spec.getHeaders().get("Authorization"));
+        assertTrue(spec.getJsonBody().contains("\"supplierName\": \"ACME\""));
+        assertEquals("@body json.$.id [==] 10", spec.getAsserts().get("id is 10"));
+        assertEquals("@body json.$.id", spec.getCaptures().get("productId"));
+        // Template is not changed by rendering
+        assertEquals("${server}/products/add", template.getSpec().getEndpoint());
+    }
+}
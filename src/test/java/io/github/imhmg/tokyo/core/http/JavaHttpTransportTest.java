@@ -0,0 +1,121 @@
+package io.github.imhmg.tokyo.core.http;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaHttpTransportTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void send() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201).addHeader("Content-Type", "application/json").setBody("{\"id\": 10}"));
+        HttpResponse response = HttpTransports.get(HttpTransports.JAVA).send(HttpRequest.builder()
+                .method("POST")
+                .endpoint(server.url("/products/add").toString())
+                .headers(Map.of("Authorization", "token", "Content-Type", "application/json"))
+                .queryParams(Map.of("q", "a b"))
+                .body("{\"name\": \"Phone\"}")
+                .build());
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\": 10}", response.getBody());
+        assertEquals("application/json", response.getHeaders().getValue("Content-Type"));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/products/add?q=a+b", request.getPath());
+        assertEquals("token", request.getHeader("Authorization"));
+        assertEquals("{\"name\": \"Phone\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    void sendForm() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\": 10, \"name\": \"Phone\"}"));
+        HttpResponse response = HttpTransports.get(HttpTransports.JAVA).send(HttpRequest.builder()
+                .method("POST")
+                .endpoint(server.url("/login").toString())
+                .formParams(Map.of("user", "admin"))
+                .streamPaths(Set.of("$.name"))
+                .build());
+
+        assertTrue(response.isStreamed());
+        assertNull(response.getBody());
+        assertEquals("Phone", response.getStreamedValues().get("$.name"));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("user=admin", request.getBody().readUtf8());
+        assertTrue(request.getHeader("Content-Type").startsWith("application/x-www-form-urlencoded"));
+    }
+
+    @Test
+    void plainHttpWithoutUpgrade() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\": 10}"));
+        HttpTransports.get(HttpTransports.JAVA).send(HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .build());
+
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("Upgrade"));
+    }
+
+    @Test
+    void http2Upgrade() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\": 10}"));
+        HttpResponse response = HttpTransports.get(HttpTransports.JAVA).send(HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .httpVersion("2")
+                .build());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("h2c", server.takeRequest().getHeader("Upgrade"));
+    }
+
+    @Test
+    void invalidHttpVersion() {
+        HttpRequest request = HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .httpVersion("3")
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> HttpTransports.get(HttpTransports.JAVA).send(request));
+    }
+
+    @Test
+    void timings() {
+        server.enqueue(new MockResponse().setBody("{\"id\": 10}"));
+        HttpResponse response = HttpTransports.get(HttpTransports.JAVA).send(HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .build());
+
+        HttpTimings timings = response.getTimings();
+        assertNotNull(timings.get(HttpTimings.Phase.HEADERS));
+        assertNotNull(timings.get(HttpTimings.Phase.DOWNLOAD));
+        assertNull(timings.get(HttpTimings.Phase.CONNECT));
+        assertNull(timings.get(HttpTimings.Phase.FIRST_BYTE));
+        assertTrue(timings.getTotal() >= timings.get(HttpTimings.Phase.HEADERS));
+    }
+}
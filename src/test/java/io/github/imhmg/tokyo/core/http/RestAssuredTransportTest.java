@@ -0,0 +1,47 @@
+package io.github.imhmg.tokyo.core.http;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestAssuredTransportTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void timings() {
+        server.enqueue(new MockResponse().setBody("{\"id\": 10}"));
+        HttpResponse response = HttpTransports.get(HttpTransports.REST_ASSURED).send(HttpRequest.builder()
+                .method("GET")
+                .endpoint(server.url("/products/10").toString())
+                .build());
+
+        assertEquals("{\"id\": 10}", response.getBody());
+        HttpTimings timings = response.getTimings();
+        for (HttpTimings.Phase phase : HttpTimings.Phase.values()) {
+            if (phase != HttpTimings.Phase.HEADERS) {
+                assertNotNull(timings.get(phase), phase.getKey());
+            }
+        }
+        // Headers phase is only recorded by transports that cannot split first byte from the write
+        assertNull(timings.get(HttpTimings.Phase.HEADERS));
+        assertTrue(timings.get(HttpTimings.Phase.CONNECT) > 0);
+        assertEquals(0, timings.get(HttpTimings.Phase.TLS));
+        assertTrue(timings.getTotal() >= timings.get(HttpTimings.Phase.FIRST_BYTE));
+    }
+}
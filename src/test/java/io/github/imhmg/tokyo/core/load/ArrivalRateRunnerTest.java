@@ -0,0 +1,81 @@
+package io.github.imhmg.tokyo.core.load;
+
+import io.github.imhmg.tokyo.core.ExecutionEngine;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.metrics.StepMetrics;
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import io.github.imhmg.tokyo.core.spec.LoadSpec;
+import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
+import io.github.imhmg.tokyo.util.TestStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrivalRateRunnerTest {
+
+    private static final long STEP_TIME = 5;
+
+    private static Metrics run(int users, int engineConcurrency, int rate, long iterationMillis) {
+        ScenarioSpec spec = new ScenarioSpec();
+        spec.setName("Arrival Rate");
+        spec.setSteps(List.of(TestStep.spec("step")));
+        spec.setLoad(LoadSpec.builder().mode(LoadSpec.ARRIVAL_RATE).users(users).rate(rate).duration(1L).build());
+        // Iterations only sleep and record a step, so the schedule is the only thing measured
+        Scenario scenario = new Scenario() {
+            @Override
+            public void runIteration(DataSpec input, Metrics metrics, long delay) {
+                try {
+                    Thread.sleep(iterationMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                metrics.record(new TestStep("step", true, STEP_TIME, null), delay);
+                metrics.iterationCompleted();
+            }
+        };
+        scenario.initialize(spec, List.of(new DataSpec()));
+        scenario.setEngine(new ExecutionEngine(engineConcurrency, false));
+        try (DataFeeder feeder = new DataFeeder(List.of(new DataSpec()))) {
+            return new ArrivalRateRunner(scenario, feeder).run();
+        } finally {
+            scenario.getEngine().shutdown();
+        }
+    }
+
+    @Test
+    void droppedWhenAllUsersBusy() {
+        // One user busy for 120 ms, iterations are due every 50 ms
+        Metrics metrics = run(1, 1, 20, 120);
+
+        assertTrue(metrics.getDropped().get() > 0);
+        assertEquals(20, metrics.getIterations().get() + metrics.getDropped().get());
+        assertEquals(metrics.getIterations().get(), metrics.getIterationLatency().getCount());
+        assertEquals(metrics.getIterations().get(), metrics.getSteps().get("step").getCount());
+    }
+
+    @Test
+    void lateWhenStartedAfterSchedule() {
+        // Two users but one thread, a free user waits for the thread and starts late
+        Metrics metrics = run(2, 1, 10, 150);
+
+        assertTrue(metrics.getLate().get() > 0);
+        assertEquals(10, metrics.getIterations().get() + metrics.getDropped().get());
+        // Step latency includes the late start, service time does not
+        StepMetrics step = metrics.getSteps().get("step");
+        assertEquals(STEP_TIME, step.getServiceTime().getMax());
+        assertTrue(step.getHistogram().getMax() >= STEP_TIME + 40);
+        assertTrue(metrics.getIterationLatency().getMax() > metrics.getIterationServiceTime().getMax());
+    }
+
+    @Test
+    void onScheduleWithFreeUsers() {
+        Metrics metrics = run(5, 5, 10, 0);
+
+        assertEquals(0, metrics.getDropped().get());
+        assertEquals(10, metrics.getIterations().get());
+        assertEquals(STEP_TIME, metrics.getSteps().get("step").getServiceTime().getMax());
+    }
+}
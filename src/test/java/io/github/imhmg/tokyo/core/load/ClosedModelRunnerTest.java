@@ -0,0 +1,108 @@
+package io.github.imhmg.tokyo.core.load;
+
+import io.github.imhmg.tokyo.core.ExecutionEngine;
+import io.github.imhmg.tokyo.core.Scenario;
+import io.github.imhmg.tokyo.core.metrics.Metrics;
+import io.github.imhmg.tokyo.core.spec.DataSpec;
+import io.github.imhmg.tokyo.core.spec.LoadSpec;
+import io.github.imhmg.tokyo.core.spec.ScenarioSpec;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClosedModelRunnerTest {
+
+    // Start time of the first iteration and iteration count of every user, a user runs on one thread
+    private final Map<Thread, Long> firstStarts = new ConcurrentHashMap<>();
+    private final Map<Thread, AtomicInteger> iterations = new ConcurrentHashMap<>();
+
+    private Metrics run(LoadSpec load, long iterationMillis) {
+        StepSpec step = new StepSpec();
+        step.setId("step");
+        step.setName("step");
+        ScenarioSpec spec = new ScenarioSpec();
+        spec.setName("Closed Model");
+        spec.setSteps(List.of(step));
+        spec.setLoad(load);
+        // Iterations only sleep, so the schedule of the users is the only thing measured
+        Scenario scenario = new Scenario() {
+            @Override
+            public void runIteration(DataSpec input, Metrics metrics) {
+                firstStarts.putIfAbsent(Thread.currentThread(), System.currentTimeMillis());
+                iterations.computeIfAbsent(Thread.currentThread(), t -> new AtomicInteger()).incrementAndGet();
+                try {
+                    Thread.sleep(iterationMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                metrics.iterationCompleted();
+            }
+        };
+        scenario.initialize(spec, List.of(new DataSpec()));
+        scenario.setEngine(new ExecutionEngine(load.getUsers(), false));
+        try (DataFeeder feeder = new DataFeeder(List.of(new DataSpec()))) {
+            return new ClosedModelRunner(scenario, feeder).run();
+        } finally {
+            scenario.getEngine().shutdown();
+        }
+    }
+
+    @Test
+    void iterationsPerUser() {
+        Metrics metrics = run(LoadSpec.builder().users(3).iterations(4).build(), 5);
+
+        assertEquals(12, metrics.getIterations().get());
+        assertEquals(3, iterations.size());
+        for (AtomicInteger count : iterations.values()) {
+            assertEquals(4, count.get());
+        }
+    }
+
+    @Test
+    void oneIterationWithoutDuration() {
+        Metrics metrics = run(LoadSpec.builder().users(2).build(), 5);
+
+        assertEquals(2, metrics.getIterations().get());
+    }
+
+    @Test
+    void rampUpSpacing() {
+        // Users start 250 ms apart over one second of ramp up
+        run(LoadSpec.builder().users(4).rampUp(1L).iterations(1).build(), 5);
+
+        List<Long> starts = new ArrayList<>(firstStarts.values());
+        starts.sort(Long::compare);
+        assertEquals(4, starts.size());
+        for (int user = 1; user < 4; user++) {
+            long offset = starts.get(user) - starts.get(0);
+            assertTrue(offset >= user * 250 - 20 && offset < user * 250 + 200, "User " + user + " started after " + offset + " ms");
+        }
+    }
+
+    @Test
+    void stopsAtDeadline() {
+        long start = System.currentTimeMillis();
+        Metrics metrics = run(LoadSpec.builder().users(2).duration(1L).build(), 100);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Users loop until the duration elapsed, a running iteration is finished
+        assertTrue(elapsed >= 1000 && elapsed < 1600, "Elapsed " + elapsed + " ms");
+        assertTrue(metrics.getIterations().get() >= 2 * 8 && metrics.getIterations().get() <= 2 * 11, "Iterations " + metrics.getIterations().get());
+    }
+
+    @Test
+    void iterationsBeforeDeadline() {
+        long start = System.currentTimeMillis();
+        Metrics metrics = run(LoadSpec.builder().users(2).duration(10L).iterations(3).build(), 5);
+
+        assertEquals(6, metrics.getIterations().get());
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+}
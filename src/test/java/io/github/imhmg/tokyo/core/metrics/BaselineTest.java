@@ -0,0 +1,60 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaselineTest {
+
+    @Test
+    void unchangedAndRegression() {
+        Baseline baseline = Baseline.of(run(100, 100));
+        List<Baseline.Delta> deltas = baseline.compare(run(100, 160), Baseline.DEFAULT_TOLERANCE);
+
+        assertEquals(Baseline.UNCHANGED, deltas.get(0).getStatus());
+        assertEquals(0, deltas.get(0).getP50Change(), 0.001);
+        assertEquals(Baseline.REGRESSION, deltas.get(1).getStatus());
+        assertTrue(deltas.get(1).getPValue() < 0.05);
+        assertTrue(deltas.get(1).getP50Change() > 50);
+    }
+
+    @Test
+    void withinTolerance() {
+        Baseline baseline = Baseline.of(run(100, 100));
+        List<Baseline.Delta> deltas = baseline.compare(run(100, 105), Baseline.DEFAULT_TOLERANCE);
+        assertEquals(Baseline.UNCHANGED, deltas.get(1).getStatus());
+    }
+
+    @Test
+    void writeAndRead(@TempDir Path dir) {
+        String path = dir.resolve("flow.baseline.json").toString();
+        assertNull(Baseline.read(path));
+        Baseline.of(run(100, 100)).write(path);
+
+        Baseline baseline = Baseline.read(path);
+        assertNotNull(baseline.getDate());
+        assertEquals(200, baseline.getSteps().get("product-get").getCount());
+        assertEquals(Baseline.IMPROVEMENT, baseline.compare(run(100, 50), Baseline.DEFAULT_TOLERANCE).get(1).getStatus());
+    }
+
+    private static Metrics run(long getTime, long addTime) {
+        Metrics metrics = new Metrics(List.of(step("product-get"), step("product-add")));
+        for (int i = 0; i < 200; i++) {
+            metrics.getSteps().get("product-get").record(getTime + i % 20, true);
+            metrics.getSteps().get("product-add").record(addTime + i % 20, true);
+        }
+        return metrics;
+    }
+
+    private static StepSpec step(String id) {
+        StepSpec spec = new StepSpec();
+        spec.setId(id);
+        spec.setName(id);
+        return spec;
+    }
+}
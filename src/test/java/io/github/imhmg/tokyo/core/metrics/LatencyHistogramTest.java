@@ -0,0 +1,56 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void exactBelowSubBucketCount() {
+        for (long v = 0; v < 64; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertEquals(v, LatencyHistogram.lowestValueAt(index));
+            assertEquals(v, LatencyHistogram.highestValueAt(index));
+        }
+    }
+
+    @Test
+    void valueWithinBucketRange() {
+        for (long v : new long[]{64, 100, 1000, 65_535, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.lowestValueAt(index) <= v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+        }
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 * 0.04);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 * 0.04);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void merge() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(20);
+        b.record(30);
+        a.merge(b);
+        assertEquals(3, a.getCount());
+        assertEquals(10, a.getMin());
+        assertEquals(30, a.getMax());
+        assertEquals(20.0, a.getMean(), 0.001);
+    }
+
+}
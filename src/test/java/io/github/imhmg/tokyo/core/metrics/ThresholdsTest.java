@@ -0,0 +1,58 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+import io.github.imhmg.tokyo.core.spec.ThresholdSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThresholdsTest {
+
+    private Metrics metrics;
+
+    @BeforeEach
+    void record() {
+        metrics = new Metrics(List.of(step("product-get"), step("product-add")));
+        for (int i = 1; i <= 100; i++) {
+            metrics.getSteps().get("product-get").record(i, true);
+            metrics.getSteps().get("product-add").record(i * 10, i <= 98);
+        }
+    }
+
+    @Test
+    void percentileOfStep() {
+        Thresholds.Result passed = Thresholds.evaluate(ThresholdSpec.builder().metric("p95").step("product-get").max(100.0).build(), metrics);
+        assertTrue(passed.isPassed());
+        assertEquals(95, passed.getActual());
+
+        Thresholds.Result breached = Thresholds.evaluate(ThresholdSpec.builder().metric("p95").step("product-get").max(50.0).build(), metrics);
+        assertFalse(breached.isPassed());
+        assertEquals("p95 of product-get was 95, expected <= 50", breached.getMessage());
+    }
+
+    @Test
+    void errorRateOfAllSteps() {
+        Thresholds.Result result = Thresholds.evaluate(ThresholdSpec.builder().metric(ThresholdSpec.ERROR_RATE).max(0.5).build(), metrics);
+        assertEquals(1.0, result.getActual(), 0.001);
+        assertFalse(result.isPassed());
+        assertEquals(200, result.getCount());
+    }
+
+    @Test
+    void noRequests() {
+        Thresholds.Result result = Thresholds.evaluate(ThresholdSpec.builder().metric(ThresholdSpec.THROUGHPUT).min(1.0).build(),
+                new Metrics(List.of(step("product-get"))));
+        assertFalse(result.isPassed());
+        assertEquals("throughput has no requests, expected >= 1", result.getMessage());
+    }
+
+    private static StepSpec step(String id) {
+        StepSpec spec = new StepSpec();
+        spec.setId(id);
+        spec.setName(id);
+        return spec;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.imhmg.tokyo.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelineTest {
+
+    @Test
+    void requestsPerSecond() {
+        Timeline timeline = new Timeline();
+        timeline.record(10, true);
+        timeline.record(999, false);
+        timeline.record(2500, true);
+
+        List<long[]> points = timeline.getPoints();
+        assertEquals(3, points.size());
+        assertArrayEquals(new long[]{0, 2, 1}, points.get(0));
+        assertArrayEquals(new long[]{1, 0, 0}, points.get(1));
+        assertArrayEquals(new long[]{2, 1, 0}, points.get(2));
+        assertEquals(3, timeline.getCount());
+    }
+
+    @Test
+    void empty() {
+        assertTrue(new Timeline().getPoints().isEmpty());
+        assertEquals(0, new Timeline().getCount());
+    }
+}
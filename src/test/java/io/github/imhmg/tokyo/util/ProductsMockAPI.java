@@ -11,15 +11,16 @@ import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.RecordedRequest;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ProductsMockAPI extends Dispatcher {
 
-    private final Map<String, Product> products = new HashMap<>();
+    // Requests of parallel rows and concurrent steps are dispatched at the same time
+    private final Map<String, Product> products = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private String validToken;
+    private volatile String validToken;
 
     @Override
     public MockResponse dispatch(RecordedRequest request) {
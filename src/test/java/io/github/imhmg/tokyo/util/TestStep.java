@@ -0,0 +1,67 @@
+package io.github.imhmg.tokyo.util;
+
+import io.github.imhmg.tokyo.commons.assertions.AssertResult;
+import io.github.imhmg.tokyo.core.Context;
+import io.github.imhmg.tokyo.core.Step;
+import io.github.imhmg.tokyo.core.spec.StepSpec;
+
+import java.util.List;
+
+/**
+ * Finished step with a fixed result, for tests of reports and metrics.
+ */
+public class TestStep extends Step {
+
+    private final boolean passed;
+    private final long time;
+    private final String details;
+
+    public TestStep(String id, boolean passed, long time, String details) {
+        super(spec(id), new Context());
+        this.passed = passed;
+        this.time = time;
+        this.details = details;
+    }
+
+    public static StepSpec spec(String id) {
+        StepSpec spec = new StepSpec();
+        spec.setId(id);
+        spec.setName(id);
+        return spec;
+    }
+
+    @Override
+    public boolean process() {
+        return passed;
+    }
+
+    @Override
+    public boolean isExecutionSuccess() {
+        return true;
+    }
+
+    @Override
+    public String getStepVariables(String key) {
+        return null;
+    }
+
+    @Override
+    public boolean isPassed() {
+        return passed;
+    }
+
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public List<AssertResult> getAssertsResults() {
+        return List.of(new AssertResult("Status check", passed, "200", passed ? "200" : "500"));
+    }
+
+    @Override
+    public String getAdditionalDetails() {
+        return details;
+    }
+}